@@ -0,0 +1,101 @@
+package com.secure.appointment.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves the pooled id sequences past ids that were handed out by IDENTITY columns.
+ *
+ * Tables that switched from IDENTITY to a pooled sequence (so their inserts can be JDBC-batched)
+ * keep their existing rows, but ddl-auto=update creates the new sequence starting at 1. The first
+ * insert after the upgrade would then collide with an existing id.
+ *
+ * Runs once on startup, after Hibernate has updated the schema and before the web server takes
+ * traffic. A sequence is only ever moved forward, and only while it is still behind max(id),
+ * so nodes already drawing ids from it are never affected.
+ *
+ * Rolling deploys: nodes still on the old build keep inserting through the id column's default
+ * (IDENTITY, max(id)+1...), which would run into the block the new nodes take from the sequence
+ * after about allocationSize inserts. So the column default is switched to nextval() on the same
+ * sequence first. An old node then takes a whole sequence value per row, and Hibernate's pooled
+ * blocks (value - allocationSize, value] never contain a value drawn by someone else. The switch,
+ * max(id) and setval run in one transaction; the ALTER's table lock keeps old-build inserts out
+ * until it commits.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequenceAlignment {
+
+	private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(IdSequenceAlignment.class);
+
+	// Sequence, table and the entity's allocationSize
+	private static final List<PooledSequence> SEQUENCES = List.of(
+			new PooledSequence("appointment_seq", "appointments", 50),
+			new PooledSequence("time_slot_seq", "time_slots", 50),
+			new PooledSequence("notification_seq", "notifications", 50));
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+
+	public IdSequenceAlignment(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@PostConstruct
+	public void alignSequences() {
+		String database = jdbcTemplate.execute(
+				(ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+		if (!"PostgreSQL".equalsIgnoreCase(database)) {
+			log.debug("Skipping id sequence alignment on {}", database);
+			return;
+		}
+		SEQUENCES.forEach(sequence -> transactionTemplate.executeWithoutResult(status -> align(sequence)));
+	}
+
+	private void align(PooledSequence sequence) {
+		useSequenceAsColumnDefault(sequence);
+		Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + sequence.table, Long.class);
+		Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence.name, Long.class);
+		if (maxId == null || lastValue == null || lastValue >= maxId) {
+			return;
+		}
+		// Hibernate's pooled optimizer hands out (value - allocationSize, value] for each value it
+		// draws, so the next value must be at least max(id) + allocationSize
+		jdbcTemplate.queryForObject("SELECT setval('" + sequence.name + "', ?)", Long.class, maxId + sequence.allocationSize);
+		log.info("Moved {} past existing {} ids (max id {})", sequence.name, sequence.table, maxId);
+	}
+
+	// Old-build inserts omit the id; make them draw from the same sequence instead of the IDENTITY
+	private void useSequenceAsColumnDefault(PooledSequence sequence) {
+		List<String> defaults = jdbcTemplate.queryForList(
+				"SELECT CASE WHEN is_identity = 'YES' THEN 'identity' ELSE COALESCE(column_default, '') END " +
+						"FROM information_schema.columns WHERE table_schema = current_schema() AND table_name = ? AND column_name = 'id'",
+				String.class, sequence.table);
+		if (defaults.isEmpty() || defaults.get(0).contains("'" + sequence.name + "'")) {
+			return;
+		}
+		jdbcTemplate.execute("ALTER TABLE " + sequence.table + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+		jdbcTemplate.execute("ALTER TABLE " + sequence.table + " ALTER COLUMN id SET DEFAULT nextval('" + sequence.name + "')");
+		log.info("{}.id now defaults to nextval('{}')", sequence.table, sequence.name);
+	}
+
+	private static class PooledSequence {
+		private final String name;
+		private final String table;
+		private final int allocationSize;
+
+		private PooledSequence(String name, String table, int allocationSize) {
+			this.name = name;
+			this.table = table;
+			this.allocationSize = allocationSize;
+		}
+	}
+}
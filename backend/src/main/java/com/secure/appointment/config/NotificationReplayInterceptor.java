@@ -0,0 +1,77 @@
+package com.secure.appointment.config;
+
+import com.secure.appointment.repository.UserRepository;
+import com.secure.appointment.security.CustomUserDetails;
+import com.secure.appointment.service.NotificationService;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.user.UserDestinationMessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * Replays missed notifications when a client subscribes to /user/queue/notifications with a
+ * 'last-seq' header (the highest notification sequence it has seen).
+ *
+ * Runs after UserDestinationMessageHandler has handled the SUBSCRIBE, i.e. once the session's
+ * subscription is registered with the broker, so replayed messages cannot arrive before it.
+ */
+@Component
+public class NotificationReplayInterceptor implements ExecutorChannelInterceptor {
+
+	private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(NotificationReplayInterceptor.class);
+
+	static final String DESTINATION = "/user/queue/notifications";
+	static final String LAST_SEQ_HEADER = "last-seq";
+
+	private final NotificationService notificationService;
+	private final UserRepository userRepository;
+
+	// Lazy: NotificationService needs the messaging template, which is built from WebSocketConfig
+	public NotificationReplayInterceptor(@Lazy NotificationService notificationService, UserRepository userRepository) {
+		this.notificationService = notificationService;
+		this.userRepository = userRepository;
+	}
+
+	@Override
+	public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+		if (ex != null || !(handler instanceof UserDestinationMessageHandler)) {
+			return;
+		}
+		StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+		if (accessor.getCommand() != StompCommand.SUBSCRIBE || !DESTINATION.equals(accessor.getDestination())) {
+			return;
+		}
+		String lastSeq = accessor.getFirstNativeHeader(LAST_SEQ_HEADER);
+		Principal principal = accessor.getUser();
+		if (lastSeq == null || principal == null) {
+			return;
+		}
+
+		try {
+			Long userId = userIdOf(principal);
+			if (userId != null) {
+				notificationService.replay(userId, principal.getName(), accessor.getSessionId(), Long.parseLong(lastSeq.trim()));
+			}
+		} catch (NumberFormatException e) {
+			log.debug("Ignoring invalid last-seq header '{}'", lastSeq);
+		} catch (RuntimeException e) {
+			log.warn("Notification replay for {} failed: {}", principal.getName(), e.getMessage());
+		}
+	}
+
+	private Long userIdOf(Principal principal) {
+		if (principal instanceof Authentication authentication
+				&& authentication.getPrincipal() instanceof CustomUserDetails details) {
+			return details.getId();
+		}
+		return userRepository.findByEmail(principal.getName()).map(user -> user.getId()).orElse(null);
+	}
+}
@@ -0,0 +1,70 @@
+package com.secure.appointment.config;
+
+import com.secure.appointment.entity.Notification;
+import com.secure.appointment.entity.User;
+import com.secure.appointment.repository.NotificationRepository;
+import com.secure.appointment.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Gives unread notifications written before per-recipient sequences existed a sequence number.
+ *
+ * Reconnect replay only returns rows with seq > last-seq, and the client no longer refetches the
+ * inbox on mount, so an unread row with seq = NULL would never be shown again.
+ *
+ * Runs once on startup, before the web server takes traffic, one transaction per recipient.
+ * Numbers are taken from users.notification_seq under the same row lock the outbox dispatcher
+ * uses, so they follow the recipient's existing sequence and every client replays them once.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class NotificationSeqBackfill {
+
+	private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(NotificationSeqBackfill.class);
+
+	private final NotificationRepository notificationRepository;
+	private final UserRepository userRepository;
+	private final TransactionTemplate transactionTemplate;
+
+	public NotificationSeqBackfill(NotificationRepository notificationRepository, UserRepository userRepository,
+			PlatformTransactionManager transactionManager) {
+		this.notificationRepository = notificationRepository;
+		this.userRepository = userRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@PostConstruct
+	public void backfillSequences() {
+		List<Long> recipientIds = notificationRepository.findRecipientIdsWithUnreadWithoutSeq();
+		int total = 0;
+		for (Long recipientId : recipientIds) {
+			Integer numbered = transactionTemplate.execute(status -> backfill(recipientId));
+			total += numbered == null ? 0 : numbered;
+		}
+		if (total > 0) {
+			log.info("Numbered {} unread notifications of {} users for replay", total, recipientIds.size());
+		}
+	}
+
+	private int backfill(Long recipientId) {
+		List<User> locked = userRepository.findAllByIdForUpdate(List.of(recipientId));
+		if (locked.isEmpty()) {
+			return 0;
+		}
+		User recipient = locked.get(0);
+		// Re-read under the lock: another node starting at the same time may have numbered them already
+		List<Notification> rows = notificationRepository.findUnreadWithoutSeq(recipientId);
+		long seq = recipient.getNotificationSeq() == null ? 0L : recipient.getNotificationSeq();
+		for (Notification notification : rows) {
+			notification.setSeq(++seq);
+		}
+		recipient.setNotificationSeq(seq);
+		return rows.size();
+	}
+}
@@ -0,0 +1,23 @@
+package com.secure.appointment.config;
+
+import com.secure.appointment.security.BookingAdmissionInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+	private final BookingAdmissionInterceptor bookingAdmissionInterceptor;
+
+	public WebMvcConfig(BookingAdmissionInterceptor bookingAdmissionInterceptor) {
+		this.bookingAdmissionInterceptor = bookingAdmissionInterceptor;
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		// Booking writes only; the interceptor itself skips non-POST requests
+		registry.addInterceptor(bookingAdmissionInterceptor)
+				.addPathPatterns("/api/appointments", "/api/appointments/**");
+	}
+}
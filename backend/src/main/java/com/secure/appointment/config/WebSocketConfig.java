@@ -1,6 +1,7 @@
 package com.secure.appointment.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -10,6 +11,12 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+	private final NotificationReplayInterceptor notificationReplayInterceptor;
+
+	public WebSocketConfig(NotificationReplayInterceptor notificationReplayInterceptor) {
+		this.notificationReplayInterceptor = notificationReplayInterceptor;
+	}
+
 	@Override
 	public void configureMessageBroker(MessageBrokerRegistry config) {
 		// Enable a simple memory-based message broker to carry messages back to the
@@ -18,6 +25,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 		// Defines the prefix for messages that are bound for methods annotated with
 		// @MessageMapping
 		config.setApplicationDestinationPrefixes("/app");
+		// Deliver each session's messages in the order they were sent: a chunked replay marks its
+		// last message, and the client resubscribes from that message's sequence
+		config.setPreservePublishOrder(true);
 	}
 
 	@Override
@@ -27,4 +37,10 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 		registry.addEndpoint("/ws").setAllowedOriginPatterns("*") // Allow all origins for simplicity in development
 				.withSockJS();
 	}
+
+	@Override
+	public void configureClientInboundChannel(ChannelRegistration registration) {
+		// Replays missed notifications on SUBSCRIBE with a 'last-seq' header
+		registration.interceptors(notificationReplayInterceptor);
+	}
 }
@@ -1,8 +1,14 @@
 package com.secure.appointment.controller;
 
+import com.secure.appointment.dto.request.AppointmentFilter;
 import com.secure.appointment.dto.response.AppointmentResponse;
+import com.secure.appointment.dto.response.CursorPage;
 import com.secure.appointment.dto.response.MessageResponse;
+import com.secure.appointment.dto.response.ProviderDailyStatsResponse;
+import com.secure.appointment.dto.response.SlotImportReport;
 import com.secure.appointment.service.AdminService;
+import com.secure.appointment.service.BookingAnalyticsService;
+import com.secure.appointment.service.SlotImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -11,10 +17,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -24,37 +35,81 @@ import java.util.List;
 public class AdminController {
 
 	private final AdminService adminService;
+	private final SlotImportService slotImportService;
+	private final BookingAnalyticsService bookingAnalyticsService;
 
-	public AdminController(AdminService adminService) {
+	public AdminController(AdminService adminService, SlotImportService slotImportService,
+			BookingAnalyticsService bookingAnalyticsService) {
 		this.adminService = adminService;
+		this.slotImportService = slotImportService;
+		this.bookingAnalyticsService = bookingAnalyticsService;
 	}
 
 	@Operation(
 		summary = "View All Appointments",
 		description = """
 			### 1. HUMAN SUMMARY
-			Fetches a complete list of EVERY appointment ever made in the system.
+			Lists every appointment in the system, newest booking first, one page at a time.
 			This is a high-level oversight tool for Administrators.
 			
 			### 2. REAL-WORLD SCENARIO
 			The System Admin logs in to check how many bookings are happening across all providers today.
-			They view this master list.
+			They filter the list to today's bookings and scroll through it.
 			
 			### 3. REQUEST EXPLANATION
-			- **Source**: No parameters. User must have ROLE_ADMIN.
+			- **Source**: Query Parameters (all optional).
+				- `cursor`: Empty or missing for the first page, then `nextCursor` from the previous response.
+				- `size`: Items per page (default 50, max 200).
+				- `status`: e.g. `BOOKED`, `CANCELLED`.
+				- `providerId` / `customerId`: Only this provider's / customer's appointments.
+				- `from` / `to`: Booking time range (ISO-8601, `from` inclusive, `to` exclusive).
 			
 			### 4. AUTH SECTION
 			- **Authentication Required**: Yes (Role: ADMIN).
 			- **Access Denied**: Providers and Clients will receive 403 Forbidden.
 			
 			### 5. RESPONSE GUIDE
-			- **200 OK**: Full list of appointments.
+			- **200 OK**: `content`, `nextCursor` and `hasNext`. No totals are computed.
+			
+			### 6. ERROR DIAGNOSIS
+			- **400 Bad Request**: "Invalid cursor" or an unknown status. Start again without a cursor.
 			"""
 	)
-	@ApiResponse(responseCode = "200", description = "List retrieved", content = @Content(array = @ArraySchema(schema = @Schema(implementation = AppointmentResponse.class))))
+	@ApiResponse(responseCode = "200", description = "Page retrieved", content = @Content(schema = @Schema(implementation = CursorPage.class)))
 	@GetMapping("/appointments")
-	public ResponseEntity<List<AppointmentResponse>> getAllAppointments() {
-		return ResponseEntity.ok(adminService.getAllAppointments());
+	public ResponseEntity<CursorPage<AppointmentResponse>> getAllAppointments(
+			@Parameter(description = "Continuation token from the previous page") @RequestParam(required = false) String cursor,
+			@Parameter(description = "Items per page (max 200)") @RequestParam(defaultValue = "50") int size,
+			@ParameterObject AppointmentFilter filter) {
+		return ResponseEntity.ok(adminService.getAllAppointments(filter, cursor, size));
+	}
+
+	@Operation(
+		summary = "Export Appointments (NDJSON)",
+		description = """
+			### 1. HUMAN SUMMARY
+			Streams every appointment matching the filters as newline-delimited JSON, one appointment per line.
+			
+			### 2. REAL-WORLD SCENARIO
+			Finance needs last quarter's bookings for an audit. The admin exports them with a date range
+			and loads the file into their reporting tool, however large it is.
+			
+			### 3. REQUEST EXPLANATION
+			- **Source**: Same filters as "View All Appointments" (`status`, `providerId`, `customerId`, `from`, `to`).
+			
+			### 4. AUTH SECTION
+			- **Authentication Required**: Yes (Role: ADMIN).
+			
+			### 5. RESPONSE GUIDE
+			- **200 OK**: `application/x-ndjson` body, newest booking first. Rows are sent while they are read.
+			"""
+	)
+	@ApiResponse(responseCode = "200", description = "Export streamed")
+	@GetMapping(value = "/appointments/export", produces = "application/x-ndjson")
+	public void exportAppointments(@ParameterObject AppointmentFilter filter, HttpServletResponse response) throws IOException {
+		response.setContentType("application/x-ndjson");
+		response.setHeader("Content-Disposition", "attachment; filename=appointments.ndjson");
+		adminService.exportAppointments(filter, response.getOutputStream());
 	}
 
 	@Operation(
@@ -110,4 +165,97 @@ public class AdminController {
 		adminService.deactivateUser(id);
 		return ResponseEntity.ok(new MessageResponse("User deactivated successfully"));
 	}
+
+	@Operation(
+		summary = "Import Slots for a Provider",
+		description = """
+			### 1. HUMAN SUMMARY
+			Same CSV import as the provider's own upload, run by an administrator on behalf of a provider.
+			
+			### 2. REAL-WORLD SCENARIO
+			During onboarding, the support team migrates a clinic's calendar for each of its doctors.
+			
+			### 3. REQUEST EXPLANATION
+			- **Source**: Path Parameter (`providerId`) and raw `text/csv` body.
+			- **Format**: `startTime,endTime[,capacity]` per line, sorted by `startTime`.
+			
+			### 4. AUTH SECTION
+			- **Authentication Required**: Yes (Role: ADMIN).
+			
+			### 5. RESPONSE GUIDE
+			- **200 OK**: Import report with per-row errors.
+			- **400 Bad Request**: Provider not found, or the user is not a provider.
+			"""
+	)
+	@ApiResponse(responseCode = "200", description = "Import report", content = @Content(schema = @Schema(implementation = SlotImportReport.class)))
+	@PostMapping(value = "/providers/{providerId}/slots/import", consumes = { "text/csv", "text/plain" })
+	public ResponseEntity<SlotImportReport> importSlots(
+			@Parameter(description = "ID of the provider") @PathVariable Long providerId,
+			java.io.InputStream csv) {
+		return ResponseEntity.ok(slotImportService.importSlots(providerId, csv));
+	}
+
+	@Operation(
+		summary = "Booking Analytics per Provider and Day",
+		description = """
+			### 1. HUMAN SUMMARY
+			Bookings, cancellations, expired holds and utilisation for every provider, day by day.
+			Read from pre-computed daily rollups, so a year of data answers as fast as a single day.
+			
+			### 2. REAL-WORLD SCENARIO
+			The admin wants to know which doctors were fully booked last month and where patients cancel most.
+			
+			### 3. REQUEST EXPLANATION
+			- **Source**: Query Parameters.
+				- `from` / `to`: Day range of the appointments (inclusive, ISO date, at most 366 days).
+				- `providerId`: Optional, only this provider.
+			
+			### 4. AUTH SECTION
+			- **Authentication Required**: Yes (Role: ADMIN).
+			
+			### 5. RESPONSE GUIDE
+			- **200 OK**: One row per provider and day that had any activity.
+				- `bookings`: Seats currently booked. `utilisation` = bookings / `seatsOffered`.
+				- Numbers trail live bookings by a few seconds.
+			
+			### 6. ERROR DIAGNOSIS
+			- **400 Bad Request**: Range reversed or longer than 366 days.
+			"""
+	)
+	@ApiResponse(responseCode = "200", description = "Rollups retrieved", content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProviderDailyStatsResponse.class))))
+	@GetMapping("/analytics")
+	public ResponseEntity<List<ProviderDailyStatsResponse>> getAnalytics(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(required = false) Long providerId) {
+		return ResponseEntity.ok(bookingAnalyticsService.getStats(from, to, providerId));
+	}
+
+	@Operation(
+		summary = "Rebuild Booking Analytics",
+		description = """
+			### 1. HUMAN SUMMARY
+			Recomputes the daily rollups for a day range from the raw appointments and slots.
+			
+			### 2. REAL-WORLD SCENARIO
+			After a server crash or a data fix, the admin rebuilds last quarter so the dashboard is exact again.
+			
+			### 3. REQUEST EXPLANATION
+			- **Source**: Query Parameters `from` / `to` (inclusive, ISO date, at most 366 days).
+			
+			### 4. AUTH SECTION
+			- **Authentication Required**: Yes (Role: ADMIN).
+			
+			### 5. RESPONSE GUIDE
+			- **200 OK**: Number of provider-day rows written. The range is processed in parallel chunks.
+			"""
+	)
+	@ApiResponse(responseCode = "200", description = "Rollups rebuilt", content = @Content(schema = @Schema(implementation = MessageResponse.class)))
+	@PostMapping("/analytics/rebuild")
+	public ResponseEntity<MessageResponse> rebuildAnalytics(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+		int rows = bookingAnalyticsService.rebuild(from, to);
+		return ResponseEntity.ok(new MessageResponse("Analytics rebuilt: " + rows + " provider-day rows"));
+	}
 }
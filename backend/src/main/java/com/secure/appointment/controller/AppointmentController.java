@@ -1,9 +1,15 @@
 package com.secure.appointment.controller;
 
 import com.secure.appointment.dto.request.AppointmentRequest;
+import com.secure.appointment.dto.request.BatchAppointmentRequest;
+import com.secure.appointment.dto.request.HoldRequest;
 import com.secure.appointment.dto.response.AppointmentResponse;
+import com.secure.appointment.dto.response.HoldResponse;
 import com.secure.appointment.security.CustomUserDetails;
 import com.secure.appointment.service.AppointmentService;
+import com.secure.appointment.service.BookingEngine;
+import com.secure.appointment.service.HoldService;
+import com.secure.appointment.service.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,6 +24,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/appointments")
@@ -26,9 +33,16 @@ import java.util.List;
 public class AppointmentController {
 
 	private final AppointmentService appointmentService;
+	private final BookingEngine bookingEngine;
+	private final IdempotencyService idempotencyService;
+	private final HoldService holdService;
 
-	public AppointmentController(AppointmentService appointmentService) {
+	public AppointmentController(AppointmentService appointmentService, BookingEngine bookingEngine,
+			IdempotencyService idempotencyService, HoldService holdService) {
 		this.appointmentService = appointmentService;
+		this.bookingEngine = bookingEngine;
+		this.idempotencyService = idempotencyService;
+		this.holdService = holdService;
 	}
 
 	@Operation(
@@ -47,6 +61,8 @@ public class AppointmentController {
 			- **Required**: Yes
 			- **Fields**:
 				- `slotId`: The unique ID of the time slot you want to book (e.g., 55).
+			- **Optional Header**: `Idempotency-Key` (any unique string, e.g. a UUID).
+				- Retrying with the same key returns the original result instead of booking again.
 			
 			### 4. AUTH SECTION
 			- **Authentication Required**: Yes (Bearer Token).
@@ -61,15 +77,153 @@ public class AppointmentController {
 			
 			### 6. ERROR DIAGNOSIS
 			- **409 Conflict**: "Slot is no longer available". This is common in high-traffic systems. Ask user to choose another time.
+			- **409 Conflict**: "still being processed". The first request with this Idempotency-Key has not finished yet. Retry shortly.
+			- **422 Unprocessable Entity**: The Idempotency-Key was already used for a different slot. Generate a new key.
 			"""
 	)
 	@ApiResponse(responseCode = "200", description = "Booking successful", content = @Content(schema = @Schema(implementation = AppointmentResponse.class)))
 	@ApiResponse(responseCode = "404", description = "Slot not found")
 	@ApiResponse(responseCode = "409", description = "Slot already booked")
 	@PostMapping
-	public ResponseEntity<AppointmentResponse> bookAppointment(@AuthenticationPrincipal CustomUserDetails userDetails,
-			@Valid @RequestBody AppointmentRequest request) {
-		return ResponseEntity.ok(appointmentService.bookAppointment(userDetails.getId(), request.getSlotId()));
+	public CompletableFuture<ResponseEntity<?>> bookAppointment(@AuthenticationPrincipal CustomUserDetails userDetails,
+			@Valid @RequestBody AppointmentRequest request,
+			@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+		return idempotencyService.executeAsync(userDetails.getId(), idempotencyKey, "book", "slot:" + request.getSlotId(), () -> {
+			if (bookingEngine.isEnabled()) {
+				// Hand off to the slot's partition; the request thread is released while it waits
+				return bookingEngine.submit(userDetails.getId(), request.getSlotId()).thenApply(ResponseEntity::ok);
+			}
+			return CompletableFuture.completedFuture(
+					ResponseEntity.ok(appointmentService.bookAppointment(userDetails.getId(), request.getSlotId())));
+		});
+	}
+
+	@Operation(
+		summary = "Book Several Slots at Once",
+		description = """
+			### 1. HUMAN SUMMARY
+			Books a list of time slots in a single all-or-nothing request.
+			Either every slot is booked, or none of them are.
+			
+			### 2. REAL-WORLD SCENARIO
+			Sarah needs six weekly physiotherapy sessions. Instead of booking them one by one,
+			she selects all six slots and clicks "Book Course". She receives one confirmation email listing every session.
+			
+			### 3. REQUEST EXPLANATION
+			- **Source**: Request Body (JSON)
+			- **Required**: Yes
+			- **Fields**:
+				- `slotIds`: The IDs of the slots to book (1 to 50 entries, e.g. `[55, 61, 67]`). Duplicates are ignored.
+			- **Optional Header**: `Idempotency-Key`, same behaviour as single booking.
+			
+			### 4. AUTH SECTION
+			- **Authentication Required**: Yes (Bearer Token).
+			
+			### 5. RESPONSE GUIDE
+			- **200 OK**: All slots booked. Returns the list of Appointment objects, ordered by slot ID.
+			- **400 Bad Request**: One of the slots does not exist, is cancelled or is full. Nothing was booked.
+			
+			### 6. ERROR DIAGNOSIS
+			- **400 Bad Request**: "Slot ... is fully booked". Remove that slot from the list (or pick another time) and retry.
+			"""
+	)
+	@ApiResponse(responseCode = "200", description = "All slots booked", content = @Content(array = @ArraySchema(schema = @Schema(implementation = AppointmentResponse.class))))
+	@ApiResponse(responseCode = "400", description = "A slot is unavailable; nothing was booked")
+	@PostMapping("/batch")
+	public ResponseEntity<?> bookAppointmentBatch(@AuthenticationPrincipal CustomUserDetails userDetails,
+			@Valid @RequestBody BatchAppointmentRequest request,
+			@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+		String fingerprint = "slots:" + request.getSlotIds().stream().distinct().sorted().toList();
+		return idempotencyService.execute(userDetails.getId(), idempotencyKey, "book-batch", fingerprint,
+				() -> ResponseEntity.ok(appointmentService.bookAppointmentBatch(userDetails.getId(), request.getSlotIds())));
+	}
+
+	@Operation(
+		summary = "Hold a Seat",
+		description = """
+			### 1. HUMAN SUMMARY
+			Reserves a seat in a slot for a limited time (10 minutes by default) without booking it yet.
+			The seat is taken out of inventory until the hold is confirmed, released, or expires.
+			
+			### 2. REAL-WORLD SCENARIO
+			Sarah picks the 10:00 AM yoga class and goes to the payment page.
+			The app places a hold so nobody else takes her seat while she enters her card details.
+			
+			### 3. REQUEST EXPLANATION
+			- **Source**: Request Body (JSON)
+			- **Fields**:
+				- `slotId`: The slot to hold a seat in.
+			
+			### 4. AUTH SECTION
+			- **Authentication Required**: Yes (Bearer Token).
+			
+			### 5. RESPONSE GUIDE
+			- **200 OK**: Hold placed.
+				- `holdToken`: Use it to confirm or release the hold.
+				- `expiresAt`: After this time the seat returns to inventory automatically.
+				- `appointment`: The appointment with status "PENDING".
+			- **400 Bad Request**: Slot not found or fully booked.
+			"""
+	)
+	@ApiResponse(responseCode = "200", description = "Hold placed", content = @Content(schema = @Schema(implementation = HoldResponse.class)))
+	@PostMapping("/holds")
+	public ResponseEntity<HoldResponse> placeHold(@AuthenticationPrincipal CustomUserDetails userDetails,
+			@Valid @RequestBody HoldRequest request) {
+		return ResponseEntity.ok(holdService.placeHold(userDetails.getId(), request.getSlotId()));
+	}
+
+	@Operation(
+		summary = "Confirm a Hold",
+		description = """
+			### 1. HUMAN SUMMARY
+			Turns an active hold into a real booking (status "BOOKED") and sends the confirmation email.
+			
+			### 2. REAL-WORLD SCENARIO
+			Sarah's payment goes through. The app confirms her hold and the seat is hers.
+			
+			### 3. REQUEST EXPLANATION
+			- **Source**: Path Parameter (`token`) - The holdToken returned when the hold was placed.
+			
+			### 4. AUTH SECTION
+			- **Authentication Required**: Yes. You can only confirm *your own* holds.
+			
+			### 5. RESPONSE GUIDE
+			- **200 OK**: Returns the Appointment object with status "BOOKED".
+			- **400 Bad Request**: "Hold has expired" or "Hold is no longer active". Place a new hold.
+			"""
+	)
+	@ApiResponse(responseCode = "200", description = "Hold confirmed", content = @Content(schema = @Schema(implementation = AppointmentResponse.class)))
+	@PostMapping("/holds/{token}/confirm")
+	public ResponseEntity<AppointmentResponse> confirmHold(@AuthenticationPrincipal CustomUserDetails userDetails,
+			@PathVariable String token) {
+		return ResponseEntity.ok(holdService.confirmHold(userDetails.getId(), token));
+	}
+
+	@Operation(
+		summary = "Release a Hold",
+		description = """
+			### 1. HUMAN SUMMARY
+			Gives the held seat back immediately instead of waiting for the hold to expire.
+			
+			### 2. REAL-WORLD SCENARIO
+			Sarah changes her mind on the payment page and clicks "Back". The app releases her hold.
+			
+			### 3. REQUEST EXPLANATION
+			- **Source**: Path Parameter (`token`) - The holdToken.
+			
+			### 4. AUTH SECTION
+			- **Authentication Required**: Yes. You can only release *your own* holds.
+			
+			### 5. RESPONSE GUIDE
+			- **200 OK**: Hold released.
+			"""
+	)
+	@ApiResponse(responseCode = "200", description = "Hold released")
+	@DeleteMapping("/holds/{token}")
+	public ResponseEntity<?> releaseHold(@AuthenticationPrincipal CustomUserDetails userDetails,
+			@PathVariable String token) {
+		holdService.releaseHold(userDetails.getId(), token);
+		return ResponseEntity.ok().build();
 	}
 
 	@Operation(
@@ -118,6 +272,7 @@ public class AppointmentController {
 			- **Source**: Path Parameter (`id`)
 			- **Required**: Yes
 			- **Meaning**: The Unique ID of the *Appointment* (NOT the slot ID) to cancel.
+			- **Optional Header**: `Idempotency-Key`. A retried cancellation with the same key returns 200 again instead of "already cancelled".
 			
 			### 4. AUTH SECTION
 			- **Authentication Required**: Yes.
@@ -137,8 +292,11 @@ public class AppointmentController {
 	@ApiResponse(responseCode = "404", description = "Appointment not found")
 	@DeleteMapping("/{id}")
 	public ResponseEntity<?> cancelAppointment(@AuthenticationPrincipal CustomUserDetails userDetails,
-			@PathVariable Long id) {
-		appointmentService.cancelAppointment(userDetails.getId(), id);
-		return ResponseEntity.ok().build();
+			@PathVariable Long id,
+			@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+		return idempotencyService.execute(userDetails.getId(), idempotencyKey, "cancel", "appointment:" + id, () -> {
+			appointmentService.cancelAppointment(userDetails.getId(), id);
+			return ResponseEntity.ok().build();
+		});
 	}
 }
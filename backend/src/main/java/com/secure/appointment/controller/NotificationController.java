@@ -26,9 +26,12 @@ import java.util.List;
 public class NotificationController {
 
     private final NotificationRepository notificationRepository;
+    private final com.secure.appointment.service.NotificationService notificationService;
 
-    public NotificationController(NotificationRepository notificationRepository) {
+    public NotificationController(NotificationRepository notificationRepository,
+                                  com.secure.appointment.service.NotificationService notificationService) {
         this.notificationRepository = notificationRepository;
+        this.notificationService = notificationService;
     }
 
     @Operation(
@@ -67,7 +70,8 @@ public class NotificationController {
                         n.getId(),
                         n.getMessage(),
                         n.isRead(),
-                        n.getCreatedAt()
+                        n.getCreatedAt(),
+                        n.getSeq()
                 ))
                 .collect(java.util.stream.Collectors.toList());
 
@@ -101,15 +105,104 @@ public class NotificationController {
     @ApiResponse(responseCode = "403", description = "Forbidden access to notification")
     @PutMapping("/{id}/read")
     public ResponseEntity<Void> markAsRead(@PathVariable Long id, @AuthenticationPrincipal CustomUserDetails userDetails) {
-        Notification notification = notificationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Notification not found"));
-
-        if (!notification.getRecipient().getId().equals(userDetails.getId())) {
+        if (!notificationService.markAsRead(userDetails.getId(), id)) {
             return ResponseEntity.status(403).build();
         }
-
-        notification.setRead(true);
-        notificationRepository.save(notification);
         return ResponseEntity.ok().build();
     }
+
+    @Operation(
+        summary = "Mark Many Notifications as Read",
+        description = """
+            ### 1. HUMAN SUMMARY
+            Marks several alerts as read in one call: a list of ids, or everything up to a point in time.
+            
+            ### 2. REAL-WORLD SCENARIO
+            Sarah comes back to 200 alerts and clicks "Mark all as read". Instead of 200 requests,
+            the app sends one with `upTo` set to the newest alert she has seen.
+            
+            ### 3. REQUEST EXPLANATION
+            - **Source**: Request Body (JSON), one of:
+                - `ids`: e.g. [12, 15, 18] (max 1000).
+                - `upTo`: ISO-8601 DateTime; every unread alert created at or before it.
+            
+            ### 4. AUTH SECTION
+            - **Authentication Required**: Yes.
+            - **Validation**: Only your own notifications are changed; other ids are ignored.
+            
+            ### 5. RESPONSE GUIDE
+            - **200 OK**: `{ "updated": 200 }`, the number of alerts that went from unread to read.
+            - **400 Bad Request**: Neither or both of `ids` and `upTo`, or too many ids.
+            """
+    )
+    @ApiResponse(responseCode = "200", description = "Number of notifications marked as read")
+    @PutMapping("/read")
+    public ResponseEntity<java.util.Map<String, Integer>> markManyAsRead(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestBody com.secure.appointment.dto.request.MarkReadRequest request) {
+        if ((request.getIds() == null) == (request.getUpTo() == null)) {
+            throw new IllegalArgumentException("Provide either ids or upTo");
+        }
+        int updated = request.getIds() != null
+                ? notificationService.markRead(userDetails.getId(), request.getIds())
+                : notificationService.markReadUpTo(userDetails.getId(), request.getUpTo());
+        return ResponseEntity.ok(java.util.Map.of("updated", updated));
+    }
+
+    @Operation(
+        summary = "Notification Inbox (Paged)",
+        description = """
+            ### 1. HUMAN SUMMARY
+            The user's notifications, newest first, one page at a time.
+            
+            ### 2. REAL-WORLD SCENARIO
+            Sarah opens the notification panel. The app shows the 20 latest alerts and loads more
+            as she scrolls, instead of downloading her whole history at once.
+            
+            ### 3. REQUEST EXPLANATION
+            - **Source**: Query Parameters
+                - `cursor`: Empty for the first page, then `nextCursor` from the previous response.
+                - `size`: Items per page (default 20, max 100).
+                - `unreadOnly`: `true` (default) for unread alerts only, `false` for all.
+            
+            ### 4. AUTH SECTION
+            - **Authentication Required**: Yes. Only your own notifications.
+            
+            ### 5. RESPONSE GUIDE
+            - **200 OK**: `content`, `nextCursor` and `hasNext`.
+            - **400 Bad Request**: "Invalid cursor". Start again with an empty cursor.
+            """
+    )
+    @ApiResponse(responseCode = "200", description = "Inbox page")
+    @GetMapping("/inbox")
+    public ResponseEntity<com.secure.appointment.dto.response.CursorPage<NotificationResponse>> getInbox(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean unreadOnly) {
+        return ResponseEntity.ok(notificationService.getInbox(userDetails.getId(), cursor, size, unreadOnly));
+    }
+
+    @Operation(
+        summary = "Unread Notification Count",
+        description = """
+            ### 1. HUMAN SUMMARY
+            Just the number of unread alerts, for the bell badge in the navigation bar.
+            
+            ### 2. REAL-WORLD SCENARIO
+            Every page Sarah visits shows "3" on the bell icon. The app polls this endpoint instead of
+            downloading the alerts themselves.
+            
+            ### 4. AUTH SECTION
+            - **Authentication Required**: Yes.
+            
+            ### 5. RESPONSE GUIDE
+            - **200 OK**: `{ "count": 3 }`. Served from a per-user counter cache, so it is cheap to poll.
+            """
+    )
+    @ApiResponse(responseCode = "200", description = "Unread count")
+    @GetMapping("/unread-count")
+    public ResponseEntity<java.util.Map<String, Long>> getUnreadCount(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(java.util.Map.of("count", notificationService.getUnreadCount(userDetails.getId())));
+    }
 }
@@ -28,10 +28,16 @@ public class ProviderController {
 
     private final TimeSlotService timeSlotService;
     private final com.secure.appointment.service.ReportService reportService;
+    private final com.secure.appointment.service.SlotImportService slotImportService;
+    private final com.secure.appointment.service.ReportJobService reportJobService;
 
-    public ProviderController(TimeSlotService timeSlotService, com.secure.appointment.service.ReportService reportService) {
+    public ProviderController(TimeSlotService timeSlotService, com.secure.appointment.service.ReportService reportService,
+                              com.secure.appointment.service.SlotImportService slotImportService,
+                              com.secure.appointment.service.ReportJobService reportJobService) {
         this.timeSlotService = timeSlotService;
         this.reportService = reportService;
+        this.slotImportService = slotImportService;
+        this.reportJobService = reportJobService;
     }
 
     @Operation(
@@ -75,6 +81,84 @@ public class ProviderController {
         return ResponseEntity.ok(timeSlotService.createSlot(userDetails.getId(), request));
     }
 
+    @Operation(
+        summary = "Create Recurring Slots",
+        description = """
+            ### 1. HUMAN SUMMARY
+            Generates a whole series of availability slots from one recurrence rule,
+            instead of creating them one request at a time.
+            
+            ### 2. REAL-WORLD SCENARIO
+            Dr. Smith works weekdays from 9 AM to 5 PM and sees patients in 30-minute blocks.
+            She sends one rule covering the next three months and gets every slot created at once.
+            
+            ### 3. REQUEST EXPLANATION
+            - **Source**: Request Body (JSON)
+            - **Fields**:
+                - `startDate` / `endDate`: First and last day of the series (inclusive), e.g. "2025-10-27".
+                - `daysOfWeek`: e.g. ["MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY"].
+                - `dayStart` / `dayEnd`: Working hours each day, e.g. "09:00" and "17:00".
+                - `slotMinutes`: Length of each slot (minimum 5).
+                - `capacity`: Optional, defaults to 1.
+            
+            ### 4. AUTH SECTION
+            - **Authentication Required**: Yes (Role: PROVIDER).
+            
+            ### 5. RESPONSE GUIDE
+            - **200 OK**: All generated slots, in time order. Occurrences already in the past are skipped.
+            - **400 Bad Request**: Invalid rule, too many slots, or a generated slot overlaps an existing one.
+              Nothing is created in that case.
+            
+            ### 6. ERROR DIAGNOSIS
+            - **400 Bad Request**: "Time slot ... overlaps". One of the generated slots clashes with your schedule.
+              Narrow the date range or the working hours, or cancel the conflicting slot first.
+            """
+    )
+    @ApiResponse(responseCode = "200", description = "Slots created", content = @Content(array = @ArraySchema(schema = @Schema(implementation = TimeSlotResponse.class))))
+    @ApiResponse(responseCode = "400", description = "Invalid rule or overlap")
+    @PostMapping("/slots/recurring")
+    public ResponseEntity<List<TimeSlotResponse>> createRecurringSlots(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @Valid @RequestBody com.secure.appointment.dto.request.RecurringSlotRequest request) {
+        return ResponseEntity.ok(timeSlotService.createRecurringSlots(userDetails.getId(), request));
+    }
+
+    @Operation(
+        summary = "Import Slots from CSV",
+        description = """
+            ### 1. HUMAN SUMMARY
+            Bulk-loads an existing schedule (tens of thousands of slots) from a CSV file in one upload.
+            
+            ### 2. REAL-WORLD SCENARIO
+            A clinic moving to our platform exports its calendar from the old system and uploads it here
+            instead of re-creating every slot by hand.
+            
+            ### 3. REQUEST EXPLANATION
+            - **Source**: Raw request body, `Content-Type: text/csv`.
+            - **Format**: One slot per line: `startTime,endTime[,capacity]` (ISO-8601, capacity defaults to 1).
+              An optional `startTime,...` header line is skipped.
+            - **Order**: Rows must be sorted by `startTime`.
+            
+            ### 4. AUTH SECTION
+            - **Authentication Required**: Yes (Role: PROVIDER).
+            
+            ### 5. RESPONSE GUIDE
+            - **200 OK**: Import report: `imported`, `failed` and the `errors` list (line number + reason).
+              Valid rows are imported even when other rows fail.
+            
+            ### 6. ERROR DIAGNOSIS
+            - **Row error "Rows must be sorted by startTime"**: Sort the file by the first column and re-upload the failed rows.
+            - **Row error "overlaps"**: The row clashes with an existing slot or with the row before it.
+            """
+    )
+    @ApiResponse(responseCode = "200", description = "Import report", content = @Content(schema = @Schema(implementation = com.secure.appointment.dto.response.SlotImportReport.class)))
+    @PostMapping(value = "/slots/import", consumes = { "text/csv", "text/plain" })
+    public ResponseEntity<com.secure.appointment.dto.response.SlotImportReport> importSlots(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            java.io.InputStream csv) {
+        return ResponseEntity.ok(slotImportService.importSlots(userDetails.getId(), csv));
+    }
+
     @Operation(
         summary = "Get My Schedule",
         description = """
@@ -183,29 +267,121 @@ public class ProviderController {
         content = @Content(mediaType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
     )
     @GetMapping("/slots/{id}/report")
-    public ResponseEntity<org.springframework.core.io.InputStreamResource> exportAppointments(
+    public void exportAppointments(
             @AuthenticationPrincipal CustomUserDetails userDetails,
-            @PathVariable Long id) throws java.io.IOException {
+            @PathVariable Long id,
+            jakarta.servlet.http.HttpServletResponse response) throws java.io.IOException {
         
         // Fetch slot details to generate filename
         TimeSlotResponse slot = timeSlotService.getSlotById(id);
 
-        java.io.ByteArrayInputStream in = reportService.generateAppointmentReport(id);
-        
         // Format: Appointment_YYYY-MM-DD_HH-MM_to_HH-MM.xlsx
         java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm");
         String filename = String.format("Appointment_%s_to_%s.xlsx", 
                 slot.getStartTime().format(formatter), 
                 slot.getEndTime().format(formatter));
         
-        org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
-        headers.add("Content-Disposition", "attachment; filename=" + filename);
-        headers.add("Access-Control-Expose-Headers", "Content-Disposition");
-        
-        return ResponseEntity
-                .ok()
-                .headers(headers)
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setHeader("Content-Disposition", "attachment; filename=" + filename);
+        response.setHeader("Access-Control-Expose-Headers", "Content-Disposition");
+
+        // Streamed straight into the response; the workbook is never held in memory as a whole
+        reportService.writeAppointmentReport(id, response.getOutputStream());
+    }
+
+    @Operation(
+        summary = "Request a Report (Background)",
+        description = """
+            ### 1. HUMAN SUMMARY
+            Queues an Excel report and returns immediately with a job id. The file is generated in the
+            background; poll the job and download it when it is ready.
+            
+            ### 2. REAL-WORLD SCENARIO
+            Dr. Smith wants every booking of the last quarter. Instead of waiting on a long download
+            that may time out, she gets a job id, the dashboard polls it and downloads the file once it is DONE.
+            Asking again for the same data (nothing booked or cancelled since) returns the same job and file.
+            
+            ### 3. REQUEST EXPLANATION
+            - **Source**: Request Body (JSON), one of:
+                - `slotId`: Report for a single slot.
+                - `fromDate` / `toDate`: Report for all your slots starting in that range (inclusive, max 366 days).
+            
+            ### 4. AUTH SECTION
+            - **Authentication Required**: Yes (Role: PROVIDER).
+            
+            ### 5. RESPONSE GUIDE
+            - **202 Accepted**: The job (`status` QUEUED, RUNNING or already DONE).
+            - **400 Bad Request**: Unknown slot, not your slot, or an invalid date range.
+            
+            ### 6. ERROR DIAGNOSIS
+            - **Job FAILED with "Report queue is full"**: Too many reports are being generated right now. Try again shortly.
+            """
+    )
+    @ApiResponse(responseCode = "202", description = "Report queued", content = @Content(schema = @Schema(implementation = com.secure.appointment.dto.response.ReportJobResponse.class)))
+    @PostMapping("/reports")
+    public ResponseEntity<com.secure.appointment.dto.response.ReportJobResponse> requestReport(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestBody com.secure.appointment.dto.request.ReportRequest request) {
+        return ResponseEntity.status(org.springframework.http.HttpStatus.ACCEPTED)
+                .body(reportJobService.submit(userDetails.getId(), request));
+    }
+
+    @Operation(
+        summary = "Get Report Status",
+        description = """
+            ### 1. HUMAN SUMMARY
+            Shows where a requested report is: QUEUED, RUNNING, DONE (with `downloadUrl`) or FAILED (with `error`).
+            
+            ### 3. REQUEST EXPLANATION
+            - **Source**: Path Parameter (`jobId`) returned by "Request a Report".
+            
+            ### 4. AUTH SECTION
+            - **Authentication Required**: Yes (Role: PROVIDER). Only your own jobs.
+            """
+    )
+    @ApiResponse(responseCode = "200", description = "Job status", content = @Content(schema = @Schema(implementation = com.secure.appointment.dto.response.ReportJobResponse.class)))
+    @GetMapping("/reports/{jobId}")
+    public ResponseEntity<com.secure.appointment.dto.response.ReportJobResponse> getReport(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @PathVariable String jobId) {
+        return ResponseEntity.ok(reportJobService.getJob(userDetails.getId(), jobId));
+    }
+
+    @Operation(
+        summary = "Download a Finished Report",
+        description = """
+            ### 1. HUMAN SUMMARY
+            Downloads the generated Excel file of a DONE job.
+            
+            ### 3. REQUEST EXPLANATION
+            - **Source**: Path Parameter (`jobId`).
+            - **Optional**: `Range` header (e.g. `bytes=1048576-`) to resume an interrupted download.
+            
+            ### 4. AUTH SECTION
+            - **Authentication Required**: Yes (Role: PROVIDER). Only your own jobs.
+            
+            ### 5. RESPONSE GUIDE
+            - **200 OK**: The whole file.
+            - **206 Partial Content**: The requested byte range.
+            - **400 Bad Request**: The job is not DONE yet, or its file has expired (request the report again).
+            """
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Excel file download",
+        content = @Content(mediaType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+    )
+    @GetMapping("/reports/{jobId}/download")
+    public ResponseEntity<org.springframework.core.io.Resource> downloadReport(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @PathVariable String jobId) {
+        com.secure.appointment.entity.ReportJob job = reportJobService.getDownload(userDetails.getId(), jobId);
+
+        // Returning the file as a Resource lets Spring answer Range requests with 206 Partial Content
+        return ResponseEntity.ok()
                 .contentType(org.springframework.http.MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(new org.springframework.core.io.InputStreamResource(in));
+                .header("Content-Disposition", "attachment; filename=" + job.getFileName())
+                .header("Accept-Ranges", "bytes")
+                .body(new org.springframework.core.io.FileSystemResource(job.getFilePath()));
     }
 }
@@ -1,17 +1,18 @@
 package com.secure.appointment.controller;
 
 import com.secure.appointment.dto.response.TimeSlotResponse;
+import com.secure.appointment.service.SlotAvailabilityCache;
 import com.secure.appointment.service.TimeSlotService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -20,9 +21,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class SlotController {
 
     private final TimeSlotService timeSlotService;
+    private final SlotAvailabilityCache slotAvailabilityCache;
 
-    public SlotController(TimeSlotService timeSlotService) {
+    public SlotController(TimeSlotService timeSlotService, SlotAvailabilityCache slotAvailabilityCache) {
         this.timeSlotService = timeSlotService;
+        this.slotAvailabilityCache = slotAvailabilityCache;
     }
 
     @Operation(
@@ -42,6 +45,9 @@ public class SlotController {
                 - `page`: Page number (0 = first page). Default is 0.
                 - `size`: How many items per page. Default is usually 10 or 20.
                 - `sort`: Sorting criteria (e.g., `startTime,asc`).
+                - `cursor`: Switches to cursor mode (recommended for infinite scroll).
+                    - Send it empty (`?cursor=`) for the first page, then send back `nextCursor` from the previous response.
+                    - Always sorted by start time; `page` and `sort` are ignored. Deep pages are as fast as the first.
             
             ### 4. AUTH SECTION
             - **No Authentication Required**: Public access.
@@ -51,18 +57,29 @@ public class SlotController {
                 - `content`: The list of slots.
                 - `totalPages`: Total number of pages available.
                 - `totalElements`: Total number of slots available.
+            - **200 OK (cursor mode)**: Returns `content`, `nextCursor` and `hasNext`. No totals are computed.
             
             ### 6. ERROR DIAGNOSIS
             - **Empty Content**: "No slots available". This means fully booked or no slots created yet.
+            - **400 Bad Request**: "Invalid cursor". Start again with an empty cursor.
             """
     )
     @Parameter(name = "page", description = "Page number (0..N)", example = "0")
     @Parameter(name = "size", description = "Items per page", example = "10")
     @Parameter(name = "sort", description = "Sort criteria", example = "startTime,asc")
+    @Parameter(name = "cursor", description = "Continuation token; empty for the first page in cursor mode", example = "")
     @ApiResponse(responseCode = "200", description = "Slots retrieved successfully")
     @GetMapping
-    public ResponseEntity<Page<TimeSlotResponse>> getAvailableSlots(
-            Pageable pageable) {
-        return ResponseEntity.ok(timeSlotService.getAvailableSlots(pageable));
+    public ResponseEntity<?> getAvailableSlots(
+            Pageable pageable,
+            @RequestParam(required = false) String cursor) {
+        // Served from cache when possible; a miss opens no transaction until the loader runs
+        if (cursor != null) {
+            int size = pageable.getPageSize();
+            return ResponseEntity.ok(slotAvailabilityCache.getAvailableSlotsAfter(cursor, size,
+                    () -> timeSlotService.getAvailableSlotsAfter(cursor, size)));
+        }
+        return ResponseEntity.ok(slotAvailabilityCache.getAvailableSlots(pageable,
+                () -> timeSlotService.getAvailableSlots(pageable)));
     }
 }
@@ -0,0 +1,119 @@
+package com.secure.appointment.controller;
+
+import com.secure.appointment.dto.request.WaitlistRequest;
+import com.secure.appointment.dto.response.WaitlistResponse;
+import com.secure.appointment.security.CustomUserDetails;
+import com.secure.appointment.service.WaitlistService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/waitlist")
+@Tag(name = "Waitlist", description = "Queueing for Fully Booked Slots")
+@SecurityRequirement(name = "bearerAuth")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    @Operation(
+        summary = "Join a Slot's Waitlist",
+        description = """
+            ### 1. HUMAN SUMMARY
+            Puts the logged-in customer in line for a fully booked slot.
+            As soon as a seat frees up, the first customer in line is booked into it automatically.
+
+            ### 2. REAL-WORLD SCENARIO
+            The 10:00 AM yoga class is full. Instead of refreshing the page all morning, Sarah joins the waitlist.
+            When someone cancels, Sarah gets a notification that she is now booked.
+
+            ### 3. REQUEST EXPLANATION
+            - **Source**: Request Body (JSON)
+            - **Fields**:
+                - `slotId`: The fully booked slot to wait for.
+
+            ### 4. AUTH SECTION
+            - **Authentication Required**: Yes (Bearer Token).
+
+            ### 5. RESPONSE GUIDE
+            - **200 OK**: Returns the waitlist entry.
+                - `position`: 1 means you are next in line.
+
+            ### 6. ERROR DIAGNOSIS
+            - **400 Bad Request**: "Slot still has free seats, book it directly". Use POST /api/appointments instead.
+            - **400 Bad Request**: "You are already on the waitlist for this slot".
+            """
+    )
+    @ApiResponse(responseCode = "200", description = "Joined the waitlist", content = @Content(schema = @Schema(implementation = WaitlistResponse.class)))
+    @PostMapping
+    public ResponseEntity<WaitlistResponse> join(@AuthenticationPrincipal CustomUserDetails userDetails,
+                                                 @Valid @RequestBody WaitlistRequest request) {
+        return ResponseEntity.ok(waitlistService.join(userDetails.getId(), request.getSlotId()));
+    }
+
+    @Operation(
+        summary = "View My Waitlist Entries",
+        description = """
+            ### 1. HUMAN SUMMARY
+            Lists the slots the logged-in customer is still waiting for, with their current place in line.
+
+            ### 2. REAL-WORLD SCENARIO
+            Sarah opens "My Bookings" and sees she is number 2 in line for the 10:00 AM class.
+
+            ### 3. REQUEST EXPLANATION
+            - **Source**: No parameters required.
+
+            ### 4. AUTH SECTION
+            - **Authentication Required**: Yes.
+
+            ### 5. RESPONSE GUIDE
+            - **200 OK**: JSON Array of waitlist entries. Promoted entries show up in GET /api/appointments/my instead.
+            """
+    )
+    @ApiResponse(responseCode = "200", description = "List retrieved successfully", content = @Content(array = @ArraySchema(schema = @Schema(implementation = WaitlistResponse.class))))
+    @GetMapping("/my")
+    public ResponseEntity<List<WaitlistResponse>> getMyEntries(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        return ResponseEntity.ok(waitlistService.getMyEntries(userDetails.getId()));
+    }
+
+    @Operation(
+        summary = "Leave a Waitlist",
+        description = """
+            ### 1. HUMAN SUMMARY
+            Removes the logged-in customer from a waitlist so they are not booked automatically.
+
+            ### 2. REAL-WORLD SCENARIO
+            Sarah found another class and no longer wants the 10:00 AM seat. She leaves the waitlist.
+
+            ### 3. REQUEST EXPLANATION
+            - **Source**: Path Parameter (`id`) - The waitlist entry ID.
+
+            ### 4. AUTH SECTION
+            - **Authentication Required**: Yes. You can only leave *your own* entries.
+
+            ### 5. RESPONSE GUIDE
+            - **200 OK**: Left the waitlist.
+            - **400 Bad Request**: "You are no longer on this waitlist". You were already promoted or removed.
+            """
+    )
+    @ApiResponse(responseCode = "200", description = "Left the waitlist")
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> leave(@AuthenticationPrincipal CustomUserDetails userDetails, @PathVariable Long id) {
+        waitlistService.leave(userDetails.getId(), id);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.secure.appointment.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchAppointmentRequest {
+    @NotEmpty
+    @Size(max = 50)
+    private List<@NotNull Long> slotIds;
+
+    public List<Long> getSlotIds() {
+        return slotIds;
+    }
+
+    public void setSlotIds(List<Long> slotIds) {
+        this.slotIds = slotIds;
+    }
+}
@@ -0,0 +1,16 @@
+package com.secure.appointment.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+
+public class HoldRequest {
+    @NotNull
+    private Long slotId;
+
+    public Long getSlotId() {
+        return slotId;
+    }
+
+    public void setSlotId(Long slotId) {
+        this.slotId = slotId;
+    }
+}
@@ -0,0 +1,28 @@
+package com.secure.appointment.dto.request;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Notifications to mark as read: either explicit 'ids' or everything created up to 'upTo'.
+ */
+public class MarkReadRequest {
+    private List<Long> ids;
+    private LocalDateTime upTo;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public LocalDateTime getUpTo() {
+        return upTo;
+    }
+
+    public void setUpTo(LocalDateTime upTo) {
+        this.upTo = upTo;
+    }
+}
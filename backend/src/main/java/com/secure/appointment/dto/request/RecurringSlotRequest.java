@@ -0,0 +1,95 @@
+package com.secure.appointment.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+/**
+ * Recurrence rule, e.g. "MONDAY-FRIDAY 09:00-17:00, 30-minute slots, capacity 2, until 2025-12-31".
+ * Expanded server-side into one slot per slotMinutes between dayStart and dayEnd on every
+ * matching day from startDate to endDate (inclusive).
+ */
+public class RecurringSlotRequest {
+    @NotNull
+    private LocalDate startDate;
+
+    @NotNull
+    private LocalDate endDate;
+
+    @NotEmpty
+    private Set<@NotNull DayOfWeek> daysOfWeek;
+
+    @NotNull
+    private LocalTime dayStart;
+
+    @NotNull
+    private LocalTime dayEnd;
+
+    @NotNull
+    @Min(5)
+    private Integer slotMinutes;
+
+    @Min(1)
+    private Integer capacity;
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Set<DayOfWeek> getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) {
+        this.daysOfWeek = daysOfWeek;
+    }
+
+    public LocalTime getDayStart() {
+        return dayStart;
+    }
+
+    public void setDayStart(LocalTime dayStart) {
+        this.dayStart = dayStart;
+    }
+
+    public LocalTime getDayEnd() {
+        return dayEnd;
+    }
+
+    public void setDayEnd(LocalTime dayEnd) {
+        this.dayEnd = dayEnd;
+    }
+
+    public Integer getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public void setSlotMinutes(Integer slotMinutes) {
+        this.slotMinutes = slotMinutes;
+    }
+
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+    }
+}
@@ -0,0 +1,37 @@
+package com.secure.appointment.dto.request;
+
+import java.time.LocalDate;
+
+/**
+ * Either a slot report ('slotId') or a provider-wide report over
+ * 'fromDate'..'toDate' (inclusive, by slot start date).
+ */
+public class ReportRequest {
+    private Long slotId;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+
+    public Long getSlotId() {
+        return slotId;
+    }
+
+    public void setSlotId(Long slotId) {
+        this.slotId = slotId;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public void setToDate(LocalDate toDate) {
+        this.toDate = toDate;
+    }
+}
@@ -25,6 +25,15 @@ public class AppointmentResponse {
         this.customerName = customerName;
     }
 
+    // Flat form for JPQL constructor expressions, which cannot build the nested slot themselves
+    public AppointmentResponse(Long id, LocalDateTime bookedAt, com.secure.appointment.entity.AppointmentStatus status, String customerName,
+                               Long slotId, LocalDateTime startTime, LocalDateTime endTime, boolean isBooked,
+                               int capacity, int bookedCount, String providerName) {
+        this(id, bookedAt, status.name(),
+                new TimeSlotResponse(slotId, startTime, endTime, isBooked, capacity, bookedCount, providerName),
+                customerName);
+    }
+
     public Long getId() {
         return id;
     }
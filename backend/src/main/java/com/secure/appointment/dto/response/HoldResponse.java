@@ -0,0 +1,42 @@
+package com.secure.appointment.dto.response;
+
+import java.time.LocalDateTime;
+
+public class HoldResponse {
+    private String holdToken;
+    private LocalDateTime expiresAt;
+    private AppointmentResponse appointment;
+
+    public HoldResponse() {
+    }
+
+    public HoldResponse(String holdToken, LocalDateTime expiresAt, AppointmentResponse appointment) {
+        this.holdToken = holdToken;
+        this.expiresAt = expiresAt;
+        this.appointment = appointment;
+    }
+
+    public String getHoldToken() {
+        return holdToken;
+    }
+
+    public void setHoldToken(String holdToken) {
+        this.holdToken = holdToken;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public AppointmentResponse getAppointment() {
+        return appointment;
+    }
+
+    public void setAppointment(AppointmentResponse appointment) {
+        this.appointment = appointment;
+    }
+}
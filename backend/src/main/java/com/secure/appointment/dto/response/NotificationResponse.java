@@ -7,6 +7,7 @@ public class NotificationResponse {
     private String message;
     private boolean isRead;
     private LocalDateTime createdAt;
+    private Long seq; // Resume token for WebSocket replay (null for old notifications)
 
     public NotificationResponse(Long id, String message, boolean isRead, LocalDateTime createdAt) {
         this.id = id;
@@ -15,6 +16,11 @@ public class NotificationResponse {
         this.createdAt = createdAt;
     }
 
+    public NotificationResponse(Long id, String message, boolean isRead, LocalDateTime createdAt, Long seq) {
+        this(id, message, isRead, createdAt);
+        this.seq = seq;
+    }
+
     public Long getId() {
         return id;
     }
@@ -46,4 +52,12 @@ public class NotificationResponse {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
 }
@@ -0,0 +1,61 @@
+package com.secure.appointment.dto.response;
+
+import java.time.LocalDate;
+
+public class ProviderDailyStatsResponse {
+    private Long providerId;
+    private String providerName;
+    private LocalDate date;
+    private long bookings;
+    private long cancellations;
+    private long expiries;
+    private long seatsOffered;
+    private double utilisation;
+
+    public ProviderDailyStatsResponse() {
+    }
+
+    public ProviderDailyStatsResponse(Long providerId, String providerName, LocalDate date, long bookings,
+                                      long cancellations, long expiries, long seatsOffered) {
+        this.providerId = providerId;
+        this.providerName = providerName;
+        this.date = date;
+        this.bookings = bookings;
+        this.cancellations = cancellations;
+        this.expiries = expiries;
+        this.seatsOffered = seatsOffered;
+        this.utilisation = seatsOffered > 0 ? (double) bookings / seatsOffered : 0.0;
+    }
+
+    public Long getProviderId() {
+        return providerId;
+    }
+
+    public String getProviderName() {
+        return providerName;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getBookings() {
+        return bookings;
+    }
+
+    public long getCancellations() {
+        return cancellations;
+    }
+
+    public long getExpiries() {
+        return expiries;
+    }
+
+    public long getSeatsOffered() {
+        return seatsOffered;
+    }
+
+    public double getUtilisation() {
+        return utilisation;
+    }
+}
@@ -0,0 +1,89 @@
+package com.secure.appointment.dto.response;
+
+import com.secure.appointment.entity.ReportJob;
+import com.secure.appointment.entity.ReportJobStatus;
+import com.secure.appointment.entity.ReportType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class ReportJobResponse {
+    private String id;
+    private ReportType type;
+    private ReportJobStatus status;
+    private Long slotId;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private String fileName;
+    private Long sizeBytes;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private String downloadUrl; // Set once the file is ready
+
+    public ReportJobResponse() {
+    }
+
+    public ReportJobResponse(ReportJob job) {
+        this.id = job.getId();
+        this.type = job.getType();
+        this.status = job.getStatus();
+        this.slotId = job.getSlotId();
+        this.fromDate = job.getFromDate();
+        this.toDate = job.getToDate();
+        this.fileName = job.getFileName();
+        this.sizeBytes = job.getSizeBytes();
+        this.error = job.getError();
+        this.createdAt = job.getCreatedAt();
+        this.completedAt = job.getCompletedAt();
+        this.downloadUrl = job.getStatus() == ReportJobStatus.DONE ? "/api/provider/reports/" + job.getId() + "/download" : null;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ReportType getType() {
+        return type;
+    }
+
+    public ReportJobStatus getStatus() {
+        return status;
+    }
+
+    public Long getSlotId() {
+        return slotId;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public String getDownloadUrl() {
+        return downloadUrl;
+    }
+}
@@ -0,0 +1,61 @@
+package com.secure.appointment.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a CSV slot import. Only the first errors are listed in full; 'failed' counts all of them.
+ */
+public class SlotImportReport {
+    private int imported;
+    private int failed;
+    private boolean errorsTruncated;
+    private List<RowError> errors = new ArrayList<>();
+
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    public void addError(int line, String message, int maxReported) {
+        failed++;
+        if (errors.size() < maxReported) {
+            errors.add(new RowError(line, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public static class RowError {
+        private final int line;
+        private final String message;
+
+        public RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
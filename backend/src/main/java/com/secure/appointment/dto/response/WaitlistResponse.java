@@ -0,0 +1,72 @@
+package com.secure.appointment.dto.response;
+
+import java.time.LocalDateTime;
+
+public class WaitlistResponse {
+    private Long id;
+    private Long slotId;
+    private LocalDateTime slotStartTime;
+    private String status;
+    private long position;
+    private LocalDateTime joinedAt;
+
+    public WaitlistResponse() {
+    }
+
+    public WaitlistResponse(Long id, Long slotId, LocalDateTime slotStartTime, String status, long position, LocalDateTime joinedAt) {
+        this.id = id;
+        this.slotId = slotId;
+        this.slotStartTime = slotStartTime;
+        this.status = status;
+        this.position = position;
+        this.joinedAt = joinedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSlotId() {
+        return slotId;
+    }
+
+    public void setSlotId(Long slotId) {
+        this.slotId = slotId;
+    }
+
+    public LocalDateTime getSlotStartTime() {
+        return slotStartTime;
+    }
+
+    public void setSlotStartTime(LocalDateTime slotStartTime) {
+        this.slotStartTime = slotStartTime;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public void setPosition(long position) {
+        this.position = position;
+    }
+
+    public LocalDateTime getJoinedAt() {
+        return joinedAt;
+    }
+
+    public void setJoinedAt(LocalDateTime joinedAt) {
+        this.joinedAt = joinedAt;
+    }
+}
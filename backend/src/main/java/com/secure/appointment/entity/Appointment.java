@@ -6,13 +6,17 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "appointments", indexes = {
     @Index(name = "idx_appointment_customer", columnList = "customer_id"),
-    @Index(name = "idx_appointment_slot", columnList = "slot_id")
+    // Admin listing: newest first with a (booked_at, id) seek key
+    @Index(name = "idx_appointment_booked_at", columnList = "booked_at, id"),
+    @Index(name = "idx_appointment_slot", columnList = "slot_id"),
+    @Index(name = "idx_appointment_status_hold_expiry", columnList = "status, hold_expires_at")
 })
 public class Appointment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_seq")
+    @SequenceGenerator(name = "appointment_seq", sequenceName = "appointment_seq", allocationSize = 50)
+    private Long id; // Pooled sequence so Hibernate can batch inserts (IDENTITY disables JDBC batching)
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
@@ -32,6 +36,12 @@ public class Appointment {
     @Column(name = "cancelled_at")
     private LocalDateTime cancelledAt;
 
+    @Column(name = "hold_token", unique = true, length = 36)
+    private String holdToken; // Set for seats reserved through the hold API
+
+    @Column(name = "hold_expires_at")
+    private LocalDateTime holdExpiresAt; // PENDING holds are released after this time
+
     public Appointment() {
     }
 
@@ -92,6 +102,22 @@ public class Appointment {
         this.cancelledAt = cancelledAt;
     }
 
+    public String getHoldToken() {
+        return holdToken;
+    }
+
+    public void setHoldToken(String holdToken) {
+        this.holdToken = holdToken;
+    }
+
+    public LocalDateTime getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+
+    public void setHoldExpiresAt(LocalDateTime holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -103,6 +129,8 @@ public class Appointment {
         private AppointmentStatus status;
         private LocalDateTime bookedAt = LocalDateTime.now();
         private LocalDateTime cancelledAt;
+        private String holdToken;
+        private LocalDateTime holdExpiresAt;
 
         public Builder id(Long id) {
             this.id = id;
@@ -134,8 +162,21 @@ public class Appointment {
             return this;
         }
 
+        public Builder holdToken(String holdToken) {
+            this.holdToken = holdToken;
+            return this;
+        }
+
+        public Builder holdExpiresAt(LocalDateTime holdExpiresAt) {
+            this.holdExpiresAt = holdExpiresAt;
+            return this;
+        }
+
         public Appointment build() {
-            return new Appointment(id, customer, slot, status, bookedAt, cancelledAt);
+            Appointment appointment = new Appointment(id, customer, slot, status, bookedAt, cancelledAt);
+            appointment.setHoldToken(holdToken);
+            appointment.setHoldExpiresAt(holdExpiresAt);
+            return appointment;
         }
     }
 }
@@ -4,12 +4,20 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // Inbox and unread count: WHERE recipient_id = ? AND is_read = false ORDER BY created_at DESC, id DESC
+        @Index(name = "idx_notification_recipient_read_created", columnList = "recipient_id, is_read, created_at, id"),
+        // Retention: WHERE is_read = true AND created_at < cutoff
+        @Index(name = "idx_notification_read_created", columnList = "is_read, created_at"),
+        // Reconnect replay: WHERE recipient_id = ? AND seq > ?
+        @Index(name = "idx_notification_recipient_seq", columnList = "recipient_id, seq", unique = true)
+})
 public class Notification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 50)
+    private Long id; // Pooled sequence so the outbox dispatcher can batch its inserts
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "recipient_id", nullable = false)
@@ -18,6 +26,9 @@ public class Notification {
     @Column(nullable = false)
     private String message;
 
+    @Column(name = "seq")
+    private Long seq; // Per-recipient, increasing; clients resume from the last one they saw
+
     @Column(name = "is_read", nullable = false)
     private boolean read = false;
 
@@ -41,6 +52,9 @@ public class Notification {
     public String getMessage() { return message; }
     public void setMessage(String message) { this.message = message; }
     
+    public Long getSeq() { return seq; }
+    public void setSeq(Long seq) { this.seq = seq; }
+    
     public boolean isRead() { return read; }
     public void setRead(boolean read) { this.read = read; }
     
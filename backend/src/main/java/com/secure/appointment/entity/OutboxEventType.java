@@ -0,0 +1,6 @@
+package com.secure.appointment.entity;
+
+public enum OutboxEventType {
+    EMAIL,
+    NOTIFICATION
+}
@@ -0,0 +1,93 @@
+package com.secure.appointment.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Booking rollup for one provider on one day (the day of the slots, not of the booking).
+ * Maintained incrementally by BookingAnalyticsService; can always be rebuilt from appointments.
+ */
+@Entity
+@Table(name = "provider_daily_stats", indexes = {
+        // Date-range queries across all providers
+        @Index(name = "idx_provider_daily_stats_date", columnList = "stat_date")
+})
+@IdClass(ProviderDailyStats.Key.class)
+public class ProviderDailyStats {
+
+    @Id
+    @Column(name = "provider_id")
+    private Long providerId;
+
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate statDate;
+
+    @Column(name = "bookings", nullable = false)
+    private long bookings; // Seats currently booked (BOOKED or COMPLETED)
+
+    @Column(name = "cancellations", nullable = false)
+    private long cancellations;
+
+    @Column(name = "expiries", nullable = false)
+    private long expiries; // Holds that ran out
+
+    @Column(name = "seats_offered", nullable = false)
+    private long seatsOffered; // Total capacity of the day's active slots
+
+    public ProviderDailyStats() {
+    }
+
+    public Long getProviderId() {
+        return providerId;
+    }
+
+    public LocalDate getStatDate() {
+        return statDate;
+    }
+
+    public long getBookings() {
+        return bookings;
+    }
+
+    public long getCancellations() {
+        return cancellations;
+    }
+
+    public long getExpiries() {
+        return expiries;
+    }
+
+    public long getSeatsOffered() {
+        return seatsOffered;
+    }
+
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Long providerId;
+        private LocalDate statDate;
+
+        public Key() {
+        }
+
+        public Key(Long providerId, LocalDate statDate) {
+            this.providerId = providerId;
+            this.statDate = statDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(providerId, key.providerId) && Objects.equals(statDate, key.statDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(providerId, statDate);
+        }
+    }
+}
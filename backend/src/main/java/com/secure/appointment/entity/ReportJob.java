@@ -0,0 +1,125 @@
+package com.secure.appointment.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * An Excel report requested by a provider and generated in the background by ReportJobService.
+ * The finished file lives on local disk ('filePath'); 'cacheKey' fingerprints the data it was
+ * built from so an identical request against unchanged data can reuse it. 'nodeId' names the
+ * node that generates and serves the file.
+ */
+@Entity
+@Table(name = "report_jobs", indexes = {
+        // Reuse lookup: same provider, same fingerprint
+        @Index(name = "idx_report_job_provider_key", columnList = "provider_id, cache_key"),
+        // Retention sweep
+        @Index(name = "idx_report_job_created_at", columnList = "created_at")
+})
+public class ReportJob {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "provider_id", nullable = false)
+    private Long providerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReportType type;
+
+    @Column(name = "slot_id")
+    private Long slotId;
+
+    @Column(name = "from_date")
+    private LocalDate fromDate;
+
+    @Column(name = "to_date")
+    private LocalDate toDate;
+
+    @Column(name = "cache_key", nullable = false)
+    private String cacheKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReportJobStatus status = ReportJobStatus.QUEUED;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName; // Download name shown to the user
+
+    @Column(name = "node_id")
+    private String nodeId;
+
+    @Column(name = "file_path", length = 1000)
+    private String filePath;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public ReportJob() {}
+
+    public ReportJob(String id, Long providerId, ReportType type, String cacheKey, String fileName) {
+        this.id = id;
+        this.providerId = providerId;
+        this.type = type;
+        this.cacheKey = cacheKey;
+        this.fileName = fileName;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public Long getProviderId() { return providerId; }
+    public void setProviderId(Long providerId) { this.providerId = providerId; }
+
+    public ReportType getType() { return type; }
+    public void setType(ReportType type) { this.type = type; }
+
+    public Long getSlotId() { return slotId; }
+    public void setSlotId(Long slotId) { this.slotId = slotId; }
+
+    public LocalDate getFromDate() { return fromDate; }
+    public void setFromDate(LocalDate fromDate) { this.fromDate = fromDate; }
+
+    public LocalDate getToDate() { return toDate; }
+    public void setToDate(LocalDate toDate) { this.toDate = toDate; }
+
+    public String getCacheKey() { return cacheKey; }
+    public void setCacheKey(String cacheKey) { this.cacheKey = cacheKey; }
+
+    public ReportJobStatus getStatus() { return status; }
+    public void setStatus(ReportJobStatus status) { this.status = status; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public String getNodeId() { return nodeId; }
+    public void setNodeId(String nodeId) { this.nodeId = nodeId; }
+
+    public String getFilePath() { return filePath; }
+    public void setFilePath(String filePath) { this.filePath = filePath; }
+
+    public Long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(Long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -0,0 +1,8 @@
+package com.secure.appointment.entity;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.secure.appointment.entity;
+
+public enum ReportType {
+    SLOT,          // Bookings of one slot
+    PROVIDER_RANGE // Bookings of all the provider's slots between two dates
+}
@@ -7,13 +7,16 @@ import java.time.LocalDateTime;
 @Table(name = "time_slots", uniqueConstraints = {
         @UniqueConstraint(columnNames = { "provider_id", "start_time" })
 }, indexes = {
-        @Index(name = "idx_timeslot_starttime", columnList = "start_time")
+        @Index(name = "idx_timeslot_starttime", columnList = "start_time"),
+        // Keyset pagination of the public listing: equality filters first, then the (start_time, id) seek key
+        @Index(name = "idx_timeslot_available_seek", columnList = "is_booked, is_cancelled, start_time, id")
 })
 public class TimeSlot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "time_slot_seq")
+    @SequenceGenerator(name = "time_slot_seq", sequenceName = "time_slot_seq", allocationSize = 50)
+    private Long id; // Pooled sequence so recurring slot generation can batch its inserts
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "provider_id", nullable = false)
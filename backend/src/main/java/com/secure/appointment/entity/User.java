@@ -26,6 +26,9 @@ public class User {
 	@Column(name = "is_active", nullable = false)
 	private boolean isActive = true;
 
+	@Column(name = "notification_seq")
+	private Long notificationSeq; // Last sequence number given to one of this user's notifications
+
 	public User() {
 	}
 
@@ -86,6 +89,14 @@ public class User {
 		isActive = active;
 	}
 
+	public Long getNotificationSeq() {
+		return notificationSeq;
+	}
+
+	public void setNotificationSeq(Long notificationSeq) {
+		this.notificationSeq = notificationSeq;
+	}
+
 	public static Builder builder() {
 		return new Builder();
 	}
@@ -0,0 +1,61 @@
+package com.secure.appointment.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        // Head-of-queue lookups: WHERE slot_id = ? AND status = 'WAITING' ORDER BY id
+        @Index(name = "idx_waitlist_slot_status", columnList = "slot_id, status, id"),
+        @Index(name = "idx_waitlist_customer", columnList = "customer_id")
+})
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // Also the FIFO order within a slot
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "slot_id", nullable = false)
+    private TimeSlot slot;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id", nullable = false)
+    private User customer;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    @Column(name = "joined_at", nullable = false)
+    private LocalDateTime joinedAt = LocalDateTime.now();
+
+    @Column(name = "promoted_at")
+    private LocalDateTime promotedAt;
+
+    public WaitlistEntry() {}
+
+    public WaitlistEntry(TimeSlot slot, User customer) {
+        this.slot = slot;
+        this.customer = customer;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public TimeSlot getSlot() { return slot; }
+    public void setSlot(TimeSlot slot) { this.slot = slot; }
+
+    public User getCustomer() { return customer; }
+    public void setCustomer(User customer) { this.customer = customer; }
+
+    public WaitlistStatus getStatus() { return status; }
+    public void setStatus(WaitlistStatus status) { this.status = status; }
+
+    public LocalDateTime getJoinedAt() { return joinedAt; }
+    public void setJoinedAt(LocalDateTime joinedAt) { this.joinedAt = joinedAt; }
+
+    public LocalDateTime getPromotedAt() { return promotedAt; }
+    public void setPromotedAt(LocalDateTime promotedAt) { this.promotedAt = promotedAt; }
+}
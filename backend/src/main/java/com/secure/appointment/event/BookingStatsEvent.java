@@ -0,0 +1,79 @@
+package com.secure.appointment.event;
+
+import com.secure.appointment.entity.TimeSlot;
+
+import java.time.LocalDate;
+
+/**
+ * Published inside transactions that change a provider's booking numbers for a day.
+ * Carries deltas only; BookingAnalyticsService adds them to the rollups after commit.
+ *
+ * Each appointment counts in exactly one bucket, matching what a rebuild derives from raw rows:
+ * booked (BOOKED/COMPLETED), cancelled (CANCELLED, no pending expiry) or expired (CANCELLED hold
+ * that still carries its expiry time).
+ */
+public class BookingStatsEvent {
+
+    private final Long providerId;
+    private final LocalDate day;
+    private final int bookings;
+    private final int cancellations;
+    private final int expiries;
+    private final int seatsOffered;
+
+    public BookingStatsEvent(Long providerId, LocalDate day, int bookings, int cancellations, int expiries, int seatsOffered) {
+        this.providerId = providerId;
+        this.day = day;
+        this.bookings = bookings;
+        this.cancellations = cancellations;
+        this.expiries = expiries;
+        this.seatsOffered = seatsOffered;
+    }
+
+    public static BookingStatsEvent booked(TimeSlot slot, int count) {
+        return of(slot, count, 0, 0, 0);
+    }
+
+    // wasBooked = false for holds (PENDING), which were never counted as bookings
+    public static BookingStatsEvent cancelled(TimeSlot slot, int count, boolean wasBooked) {
+        return of(slot, wasBooked ? -count : 0, count, 0, 0);
+    }
+
+    public static BookingStatsEvent expired(TimeSlot slot) {
+        return of(slot, 0, 0, 1, 0);
+    }
+
+    public static BookingStatsEvent seatsOffered(TimeSlot slot, int delta) {
+        return of(slot, 0, 0, 0, delta);
+    }
+
+    private static BookingStatsEvent of(TimeSlot slot, int bookings, int cancellations, int expiries, int seatsOffered) {
+        // getId() on the LAZY provider proxy does not load it
+        return new BookingStatsEvent(slot.getProvider().getId(), slot.getStartTime().toLocalDate(),
+                bookings, cancellations, expiries, seatsOffered);
+    }
+
+    public Long getProviderId() {
+        return providerId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public int getBookings() {
+        return bookings;
+    }
+
+    public int getCancellations() {
+        return cancellations;
+    }
+
+    public int getExpiries() {
+        return expiries;
+    }
+
+    public int getSeatsOffered() {
+        return seatsOffered;
+    }
+}
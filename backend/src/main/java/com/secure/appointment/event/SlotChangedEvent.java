@@ -0,0 +1,33 @@
+package com.secure.appointment.event;
+
+import com.secure.appointment.entity.TimeSlot;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published inside any transaction that changes a slot's availability
+ * (booking, cancellation, hold, capacity change, slot create/cancel).
+ * Listeners that act on it after commit see only changes that actually happened.
+ */
+public class SlotChangedEvent {
+
+    private final Long slotId;
+    private final LocalDateTime startTime;
+
+    public SlotChangedEvent(Long slotId, LocalDateTime startTime) {
+        this.slotId = slotId;
+        this.startTime = startTime;
+    }
+
+    public static SlotChangedEvent of(TimeSlot slot) {
+        return new SlotChangedEvent(slot.getId(), slot.getStartTime());
+    }
+
+    public Long getSlotId() {
+        return slotId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+}
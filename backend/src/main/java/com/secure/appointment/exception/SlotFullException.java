@@ -0,0 +1,19 @@
+package com.secure.appointment.exception;
+
+/**
+ * Thrown when a slot has no seat left to claim.
+ * Callers (booking metrics, benchmarks) tell this outcome apart by type, never by message;
+ * GlobalExceptionHandler still maps it to a 400 like any other RuntimeException.
+ */
+public class SlotFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SlotFullException() {
+        super("Slot is fully booked");
+    }
+
+    public SlotFullException(String message) {
+        super(message);
+    }
+}
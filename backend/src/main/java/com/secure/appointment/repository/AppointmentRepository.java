@@ -9,19 +9,91 @@ import java.util.List;
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
-    // For Customer: My Appointments
-    List<Appointment> findByCustomerIdOrderByBookedAtDesc(Long customerId);
+    // Listing projections: customer, slot and provider joined in one SELECT (1 query instead of 1 + 2N)
+    String VIEW_SELECT = "SELECT new com.secure.appointment.dto.response.AppointmentResponse(" +
+            "a.id, a.bookedAt, a.status, c.name, s.id, s.startTime, s.endTime, s.isBooked, s.capacity, s.bookedCount, p.name) " +
+            "FROM Appointment a JOIN a.customer c JOIN a.slot s JOIN s.provider p ";
+
+    @org.springframework.data.jpa.repository.Query(VIEW_SELECT + "WHERE c.id = :customerId ORDER BY a.bookedAt DESC")
+    List<com.secure.appointment.dto.response.AppointmentResponse> findViewsByCustomerId(
+            @org.springframework.data.repository.query.Param("customerId") Long customerId);
+
+    // Excel report: customer and slot fetched in the same query, read as a forward-only stream
+    @org.springframework.data.jpa.repository.Query("SELECT a FROM Appointment a JOIN FETCH a.customer JOIN FETCH a.slot " +
+            "WHERE a.slot.id = :slotId AND a.status = :status ORDER BY a.id")
+    @org.springframework.data.jpa.repository.QueryHints(@jakarta.persistence.QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    java.util.stream.Stream<Appointment> streamReportRows(@org.springframework.data.repository.query.Param("slotId") Long slotId,
+                                                         @org.springframework.data.repository.query.Param("status") com.secure.appointment.entity.AppointmentStatus status);
+
+    // Provider-wide report: every booking on the provider's slots starting in [from, to)
+    @org.springframework.data.jpa.repository.Query("SELECT a FROM Appointment a JOIN FETCH a.customer JOIN FETCH a.slot s " +
+            "WHERE s.provider.id = :providerId AND s.startTime >= :from AND s.startTime < :to AND a.status = :status " +
+            "ORDER BY s.startTime, a.id")
+    @org.springframework.data.jpa.repository.QueryHints(@jakarta.persistence.QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    java.util.stream.Stream<Appointment> streamProviderReportRows(@org.springframework.data.repository.query.Param("providerId") Long providerId,
+                                                                 @org.springframework.data.repository.query.Param("from") java.time.LocalDateTime from,
+                                                                 @org.springframework.data.repository.query.Param("to") java.time.LocalDateTime to,
+                                                                 @org.springframework.data.repository.query.Param("status") com.secure.appointment.entity.AppointmentStatus status);
+
+    // Report fingerprints: confirming a hold changes the appointment only, not the slot version
+    long countBySlotIdAndStatus(Long slotId, com.secure.appointment.entity.AppointmentStatus status);
+
+    @org.springframework.data.jpa.repository.Query("SELECT COUNT(a) FROM Appointment a WHERE a.slot.provider.id = :providerId " +
+            "AND a.slot.startTime >= :from AND a.slot.startTime < :to AND a.status = :status")
+    long countByProviderRange(@org.springframework.data.repository.query.Param("providerId") Long providerId,
+                              @org.springframework.data.repository.query.Param("from") java.time.LocalDateTime from,
+                              @org.springframework.data.repository.query.Param("to") java.time.LocalDateTime to,
+                              @org.springframework.data.repository.query.Param("status") com.secure.appointment.entity.AppointmentStatus status);
 
     // For Provider: Appointments for my slots
     List<Appointment> findBySlotProviderIdOrderBySlotStartTimeAsc(Long providerId);
 
-    // Find active appointment for a mobile slot
-    // Find active appointment for a mobile slot
-    // Return List since multiple users can book the same slot now
-    List<Appointment> findAllBySlotIdAndStatus(Long slotId, com.secure.appointment.entity.AppointmentStatus status);
+    // Waitlist: a customer who already holds or booked a seat on the slot must not queue for another
+    boolean existsBySlotIdAndCustomerIdAndStatusIn(Long slotId, Long customerId,
+                                                   java.util.Collection<com.secure.appointment.entity.AppointmentStatus> statuses);
 
     java.util.Optional<Appointment> findBySlotIdAndStatus(Long slotId, com.secure.appointment.entity.AppointmentStatus status);
 
-    // Find expired appointments
-    List<Appointment> findByStatusAndBookedAtBefore(com.secure.appointment.entity.AppointmentStatus status, java.time.LocalDateTime dateTime);
+    // Provider cancel: who to notify (bookings and holds, with their customers), then one UPDATE per status
+    @org.springframework.data.jpa.repository.Query("SELECT a FROM Appointment a JOIN FETCH a.customer WHERE a.slot.id = :slotId AND a.status IN :statuses")
+    List<Appointment> findWithCustomerBySlotIdAndStatusIn(@org.springframework.data.repository.query.Param("slotId") Long slotId,
+                                                          @org.springframework.data.repository.query.Param("statuses") java.util.Collection<com.secure.appointment.entity.AppointmentStatus> statuses);
+
+    @org.springframework.data.jpa.repository.Modifying(flushAutomatically = true)
+    @org.springframework.data.jpa.repository.Query("UPDATE Appointment a SET a.status = com.secure.appointment.entity.AppointmentStatus.CANCELLED, " +
+            "a.cancelledAt = :now, a.holdExpiresAt = null WHERE a.slot.id = :slotId AND a.status = :status")
+    int cancelAllForSlotWithStatus(@org.springframework.data.repository.query.Param("slotId") Long slotId,
+                                   @org.springframework.data.repository.query.Param("status") com.secure.appointment.entity.AppointmentStatus status,
+                                   @org.springframework.data.repository.query.Param("now") java.time.LocalDateTime now);
+
+    // Seat holds
+    java.util.Optional<Appointment> findByHoldToken(String holdToken);
+
+    // Uses idx_appointment_status_hold_expiry; 'before' = far future loads every outstanding hold
+    List<Appointment> findByStatusAndHoldExpiresAtBefore(com.secure.appointment.entity.AppointmentStatus status, java.time.LocalDateTime dateTime);
+
+    // Guarded state transitions: the WHERE clause re-checks the status the caller saw, so when a confirm,
+    // a release, a cancel and an expiry race on the same row exactly one of them gets 1 back.
+    // Only that caller may give the seat back or queue side effects.
+    @org.springframework.data.jpa.repository.Modifying(flushAutomatically = true)
+    @org.springframework.data.jpa.repository.Query("UPDATE Appointment a SET a.status = com.secure.appointment.entity.AppointmentStatus.BOOKED, " +
+            "a.holdExpiresAt = null WHERE a.id = :id AND a.status = com.secure.appointment.entity.AppointmentStatus.PENDING " +
+            "AND a.holdExpiresAt > :now AND a.slot.isCancelled = false")
+    int confirmPendingHold(@org.springframework.data.repository.query.Param("id") Long id,
+                           @org.springframework.data.repository.query.Param("now") java.time.LocalDateTime now);
+
+    // Expiry keeps hold_expires_at so analytics can tell an expired hold from a cancelled one
+    @org.springframework.data.jpa.repository.Modifying(flushAutomatically = true)
+    @org.springframework.data.jpa.repository.Query("UPDATE Appointment a SET a.status = com.secure.appointment.entity.AppointmentStatus.CANCELLED, " +
+            "a.cancelledAt = :now WHERE a.id = :id AND a.status = com.secure.appointment.entity.AppointmentStatus.PENDING " +
+            "AND a.holdExpiresAt <= :now")
+    int expirePendingHold(@org.springframework.data.repository.query.Param("id") Long id,
+                          @org.springframework.data.repository.query.Param("now") java.time.LocalDateTime now);
+
+    @org.springframework.data.jpa.repository.Modifying(flushAutomatically = true)
+    @org.springframework.data.jpa.repository.Query("UPDATE Appointment a SET a.status = com.secure.appointment.entity.AppointmentStatus.CANCELLED, " +
+            "a.cancelledAt = :now, a.holdExpiresAt = null WHERE a.id = :id AND a.status = :expected")
+    int cancelIfStatus(@org.springframework.data.repository.query.Param("id") Long id,
+                       @org.springframework.data.repository.query.Param("expected") com.secure.appointment.entity.AppointmentStatus expected,
+                       @org.springframework.data.repository.query.Param("now") java.time.LocalDateTime now);
 }
@@ -1,12 +1,66 @@
 package com.secure.appointment.repository;
 
+import com.secure.appointment.dto.response.NotificationResponse;
 import com.secure.appointment.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByRecipientIdAndReadFalseOrderByCreatedAtDesc(Long recipientId);
+
+    long countByRecipientIdAndReadFalse(Long recipientId);
+
+    // Mark-as-read as single set-based UPDATEs; the recipient predicate enforces ownership
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.read = true WHERE n.recipient.id = :recipientId AND n.read = false AND n.id IN :ids")
+    int markReadByIds(@Param("recipientId") Long recipientId, @Param("ids") Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.read = true WHERE n.recipient.id = :recipientId AND n.read = false AND n.createdAt <= :upTo")
+    int markReadUpTo(@Param("recipientId") Long recipientId, @Param("upTo") LocalDateTime upTo);
+
+    // Reconnect replay: the oldest unread notifications after the client's last sequence, so a
+    // limited replay never skips over older ones
+    @Query("SELECT new com.secure.appointment.dto.response.NotificationResponse(n.id, n.message, n.read, n.createdAt, n.seq) " +
+            "FROM Notification n WHERE n.recipient.id = :recipientId AND n.seq > :afterSeq AND n.read = false ORDER BY n.seq ASC")
+    List<NotificationResponse> findUnreadViewsAfterSeq(@Param("recipientId") Long recipientId,
+                                                       @Param("afterSeq") Long afterSeq,
+                                                       Pageable limit);
+
+    // Startup backfill (NotificationSeqBackfill) for unread rows written before seq existed
+    @Query("SELECT DISTINCT n.recipient.id FROM Notification n WHERE n.seq IS NULL AND n.read = false")
+    List<Long> findRecipientIdsWithUnreadWithoutSeq();
+
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId AND n.seq IS NULL AND n.read = false " +
+            "ORDER BY n.createdAt ASC, n.id ASC")
+    List<Notification> findUnreadWithoutSeq(@Param("recipientId") Long recipientId);
+
+    @Query("SELECT n.recipient.id FROM Notification n WHERE n.id = :id")
+    java.util.Optional<Long> findRecipientIdById(@Param("id") Long id);
+
+    // Inbox pages, newest first, seeking past the last (createdAt, id) the client has seen
+    @Query("SELECT new com.secure.appointment.dto.response.NotificationResponse(n.id, n.message, n.read, n.createdAt, n.seq) " +
+            "FROM Notification n WHERE n.recipient.id = :recipientId AND n.read = false AND n.createdAt <= :beforeTime " +
+            "AND (n.createdAt < :beforeTime OR (n.createdAt = :beforeTime AND n.id < :beforeId)) ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationResponse> findUnreadViewsBefore(@Param("recipientId") Long recipientId,
+                                                     @Param("beforeTime") LocalDateTime beforeTime,
+                                                     @Param("beforeId") Long beforeId,
+                                                     Pageable limit);
+
+    @Query("SELECT new com.secure.appointment.dto.response.NotificationResponse(n.id, n.message, n.read, n.createdAt, n.seq) " +
+            "FROM Notification n WHERE n.recipient.id = :recipientId AND n.createdAt <= :beforeTime " +
+            "AND (n.createdAt < :beforeTime OR (n.createdAt = :beforeTime AND n.id < :beforeId)) ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationResponse> findViewsBefore(@Param("recipientId") Long recipientId,
+                                               @Param("beforeTime") LocalDateTime beforeTime,
+                                               @Param("beforeId") Long beforeId,
+                                               Pageable limit);
 }
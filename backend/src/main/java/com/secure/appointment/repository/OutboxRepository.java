@@ -0,0 +1,26 @@
+package com.secure.appointment.repository;
+
+import com.secure.appointment.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Next batch of due events. SKIP LOCKED (lock timeout -2) lets several nodes drain in parallel
+    // without handing the same event to two dispatchers.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = com.secure.appointment.entity.OutboxStatus.PENDING AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<OutboxEvent> findDueForDispatch(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,28 @@
+package com.secure.appointment.repository;
+
+import com.secure.appointment.dto.response.ProviderDailyStatsResponse;
+import com.secure.appointment.entity.ProviderDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ProviderDailyStatsRepository extends JpaRepository<ProviderDailyStats, ProviderDailyStats.Key> {
+
+    String VIEW_SELECT = "SELECT new com.secure.appointment.dto.response.ProviderDailyStatsResponse(" +
+            "s.providerId, u.name, s.statDate, s.bookings, s.cancellations, s.expiries, s.seatsOffered) " +
+            "FROM ProviderDailyStats s, User u WHERE u.id = s.providerId AND s.statDate BETWEEN :from AND :to ";
+
+    // Served by idx_provider_daily_stats_date: one row per provider per day in the range
+    @Query(VIEW_SELECT + "ORDER BY s.statDate, s.providerId")
+    List<ProviderDailyStatsResponse> findViews(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Served by the primary key (provider_id, stat_date)
+    @Query(VIEW_SELECT + "AND s.providerId = :providerId ORDER BY s.statDate")
+    List<ProviderDailyStatsResponse> findViewsByProvider(@Param("providerId") Long providerId,
+                                                         @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
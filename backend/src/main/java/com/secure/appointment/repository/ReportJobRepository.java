@@ -0,0 +1,32 @@
+package com.secure.appointment.repository;
+
+import com.secure.appointment.entity.ReportJob;
+import com.secure.appointment.entity.ReportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, String> {
+
+    // Newest job for the same data that is still usable (queued, running or finished)
+    List<ReportJob> findByProviderIdAndCacheKeyAndStatusInOrderByCreatedAtDesc(Long providerId, String cacheKey,
+                                                                               Collection<ReportJobStatus> statuses);
+
+    // Startup resume: only the jobs this node was generating
+    List<ReportJob> findByNodeIdAndStatusIn(String nodeId, Collection<ReportJobStatus> statuses);
+
+    List<ReportJob> findByCreatedAtBefore(LocalDateTime cutoff);
+
+    // Worker claim: QUEUED -> RUNNING exactly once
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ReportJob j SET j.status = com.secure.appointment.entity.ReportJobStatus.RUNNING " +
+            "WHERE j.id = :id AND j.status = com.secure.appointment.entity.ReportJobStatus.QUEUED")
+    int markRunning(@Param("id") String id);
+}
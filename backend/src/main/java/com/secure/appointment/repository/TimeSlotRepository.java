@@ -13,26 +13,80 @@ public interface TimeSlotRepository extends JpaRepository<TimeSlot, Long> {
     // Find slots by provider (active only)
     List<TimeSlot> findByProviderIdAndIsCancelledFalseOrderByStartTimeAsc(Long providerId);
 
-    // Find overlapping slots for validation
-    // Find overlapping slots for validation
-    // start < existingEnd AND end > existingStart AND isCancelled = false
-    // Find overlapping slots for validation
-    // start < existingEnd AND end > existingStart AND isCancelled = false
-    boolean existsByProviderIdAndStartTimeLessThanAndEndTimeGreaterThanAndIsCancelledFalse(
-            Long providerId, LocalDateTime endTime, LocalDateTime startTime);
+    // All of a provider's slots (active or cancelled) touching [from, to), ordered for a sweep
+    @org.springframework.data.jpa.repository.Query("SELECT ts FROM TimeSlot ts WHERE ts.provider.id = :providerId " +
+            "AND ts.startTime < :to AND ts.endTime >= :from ORDER BY ts.startTime ASC")
+    List<TimeSlot> findByProviderInRange(@org.springframework.data.repository.query.Param("providerId") Long providerId,
+                                         @org.springframework.data.repository.query.Param("from") LocalDateTime from,
+                                         @org.springframework.data.repository.query.Param("to") LocalDateTime to);
 
-    // Find slot by provider and exact start time (active or cancelled)
-    java.util.Optional<TimeSlot> findByProviderIdAndStartTime(Long providerId, LocalDateTime startTime);
+    // Report fingerprint of a provider's slots starting in [from, to): every slot write bumps its
+    // version, so (count, sum of versions) changes whenever any of them changes
+    @org.springframework.data.jpa.repository.Query("SELECT COUNT(ts), COALESCE(SUM(ts.version), 0) FROM TimeSlot ts " +
+            "WHERE ts.provider.id = :providerId AND ts.startTime >= :from AND ts.startTime < :to")
+    List<Object[]> versionSummary(@org.springframework.data.repository.query.Param("providerId") Long providerId,
+                                  @org.springframework.data.repository.query.Param("from") LocalDateTime from,
+                                  @org.springframework.data.repository.query.Param("to") LocalDateTime to);
+
+    // Listing projections: one joined SELECT straight into the response DTO instead of
+    // loading each slot's LAZY provider separately (1 query per page instead of 1 + N)
+    @org.springframework.data.jpa.repository.Query("SELECT new com.secure.appointment.dto.response.TimeSlotResponse(" +
+            "ts.id, ts.startTime, ts.endTime, ts.isBooked, ts.capacity, ts.bookedCount, p.name) " +
+            "FROM TimeSlot ts JOIN ts.provider p WHERE ts.id = :id")
+    java.util.Optional<com.secure.appointment.dto.response.TimeSlotResponse> findViewById(@org.springframework.data.repository.query.Param("id") Long id);
+
+    @org.springframework.data.jpa.repository.Query("SELECT new com.secure.appointment.dto.response.TimeSlotResponse(" +
+            "ts.id, ts.startTime, ts.endTime, ts.isBooked, ts.capacity, ts.bookedCount, p.name) " +
+            "FROM TimeSlot ts JOIN ts.provider p WHERE p.id = :providerId AND ts.isCancelled = false ORDER BY ts.startTime ASC")
+    List<com.secure.appointment.dto.response.TimeSlotResponse> findViewsByProviderId(@org.springframework.data.repository.query.Param("providerId") Long providerId);
 
     // Find available slots for customers (future only, not cancelled)
     List<TimeSlot> findByIsBookedFalseAndIsCancelledFalseAndStartTimeAfterOrderByStartTimeAsc(LocalDateTime now);
     
     // Available slots (Paginated)
-    org.springframework.data.domain.Page<TimeSlot> findByIsBookedFalseAndIsCancelledFalseAndStartTimeAfter(LocalDateTime now, org.springframework.data.domain.Pageable pageable);
+    @org.springframework.data.jpa.repository.Query(value = "SELECT new com.secure.appointment.dto.response.TimeSlotResponse(" +
+            "ts.id, ts.startTime, ts.endTime, ts.isBooked, ts.capacity, ts.bookedCount, p.name) " +
+            "FROM TimeSlot ts JOIN ts.provider p WHERE ts.isBooked = false AND ts.isCancelled = false AND ts.startTime > :now",
+            countQuery = "SELECT COUNT(ts) FROM TimeSlot ts WHERE ts.isBooked = false AND ts.isCancelled = false AND ts.startTime > :now")
+    org.springframework.data.domain.Page<com.secure.appointment.dto.response.TimeSlotResponse> findAvailableViews(
+            @org.springframework.data.repository.query.Param("now") LocalDateTime now, org.springframework.data.domain.Pageable pageable);
+
+    // Available slots (Keyset): the next rows after (afterStart, afterId), no OFFSET and no COUNT.
+    // The redundant 'startTime >= :afterStart' gives the index a range start to seek to.
+    @org.springframework.data.jpa.repository.Query("SELECT new com.secure.appointment.dto.response.TimeSlotResponse(" +
+            "ts.id, ts.startTime, ts.endTime, ts.isBooked, ts.capacity, ts.bookedCount, p.name) " +
+            "FROM TimeSlot ts JOIN ts.provider p WHERE ts.isBooked = false AND ts.isCancelled = false " +
+            "AND ts.startTime > :now AND ts.startTime >= :afterStart " +
+            "AND (ts.startTime > :afterStart OR (ts.startTime = :afterStart AND ts.id > :afterId)) ORDER BY ts.startTime, ts.id")
+    List<com.secure.appointment.dto.response.TimeSlotResponse> findAvailableViewsAfter(
+            @org.springframework.data.repository.query.Param("now") LocalDateTime now,
+            @org.springframework.data.repository.query.Param("afterStart") LocalDateTime afterStart,
+            @org.springframework.data.repository.query.Param("afterId") Long afterId,
+            org.springframework.data.domain.Pageable limit);
 
     @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
     @org.springframework.data.jpa.repository.Query("SELECT ts FROM TimeSlot ts WHERE ts.id = :id")
     java.util.Optional<TimeSlot> findByIdWithLock(@org.springframework.data.repository.query.Param("id") Long id);
 
+    // Lock several slots at once, always in id order so concurrent batches cannot deadlock
+    @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @org.springframework.data.jpa.repository.Query("SELECT ts FROM TimeSlot ts WHERE ts.id IN :ids ORDER BY ts.id")
+    List<TimeSlot> findAllByIdWithLock(@org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids);
+
+    // Claim one seat in a single statement: only matches while seats remain and the slot is active.
+    // Returns 0 when the slot is full, cancelled or missing.
+    @org.springframework.data.jpa.repository.Modifying(flushAutomatically = true, clearAutomatically = true)
+    @org.springframework.data.jpa.repository.Query("UPDATE TimeSlot ts SET ts.bookedCount = ts.bookedCount + 1, " +
+            "ts.isBooked = CASE WHEN ts.bookedCount + 1 >= ts.capacity THEN true ELSE false END, " +
+            "ts.version = COALESCE(ts.version, 0) + 1 " +
+            "WHERE ts.id = :id AND ts.bookedCount < ts.capacity AND COALESCE(ts.isCancelled, false) = false")
+    int claimSeat(@org.springframework.data.repository.query.Param("id") Long id);
+
+    // Give one seat back (hold expiry/release) without a read-modify-write round trip
+    @org.springframework.data.jpa.repository.Modifying(flushAutomatically = true, clearAutomatically = true)
+    @org.springframework.data.jpa.repository.Query("UPDATE TimeSlot ts SET ts.bookedCount = ts.bookedCount - 1, ts.isBooked = false, " +
+            "ts.version = COALESCE(ts.version, 0) + 1 WHERE ts.id = :id AND ts.bookedCount > 0")
+    int releaseSeat(@org.springframework.data.repository.query.Param("id") Long id);
+
 
 }
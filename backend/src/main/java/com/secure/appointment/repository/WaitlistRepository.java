@@ -0,0 +1,36 @@
+package com.secure.appointment.repository;
+
+import com.secure.appointment.entity.WaitlistEntry;
+import com.secure.appointment.entity.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // Head of the queue for a slot
+    Optional<WaitlistEntry> findFirstBySlotIdAndStatusOrderByIdAsc(Long slotId, WaitlistStatus status);
+
+    boolean existsBySlotIdAndCustomerIdAndStatus(Long slotId, Long customerId, WaitlistStatus status);
+
+    // Position in the queue = entries still waiting at or ahead of this one
+    long countBySlotIdAndStatusAndIdLessThanEqual(Long slotId, WaitlistStatus status, Long id);
+
+    List<WaitlistEntry> findByCustomerIdAndStatusOrderByJoinedAtDesc(Long customerId, WaitlistStatus status);
+
+    // Take an entry off the queue only if nobody else did first
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :to, w.promotedAt = :at WHERE w.id = :id AND w.status = com.secure.appointment.entity.WaitlistStatus.WAITING")
+    int transitionFromWaiting(@Param("id") Long id, @Param("to") WaitlistStatus to, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = com.secure.appointment.entity.WaitlistStatus.CLOSED WHERE w.slot.id = :slotId AND w.status = com.secure.appointment.entity.WaitlistStatus.WAITING")
+    int closeAllForSlot(@Param("slotId") Long slotId);
+}
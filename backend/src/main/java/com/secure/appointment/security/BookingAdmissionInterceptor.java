@@ -0,0 +1,83 @@
+package com.secure.appointment.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secure.appointment.dto.response.MessageResponse;
+import com.secure.appointment.service.AdmissionControlService;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies AdmissionControlService to booking writes (POST /api/appointments/**).
+ * Runs after JWT authentication and before the controller, so a rejected request
+ * never borrows a DB connection or waits on a slot lock. Rejections are 429 with Retry-After.
+ *
+ * Async bookings (CompletableFuture) are dispatched twice: the permit is taken on the
+ * first dispatch and returned in afterCompletion of the final one.
+ */
+@Component
+public class BookingAdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_STARTED_AT = BookingAdmissionInterceptor.class.getName() + ".startedAt";
+
+    private final AdmissionControlService admissionControlService;
+    private final ObjectMapper objectMapper;
+
+    public BookingAdmissionInterceptor(AdmissionControlService admissionControlService, ObjectMapper objectMapper) {
+        this.admissionControlService = admissionControlService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!admissionControlService.isEnabled()
+                || !"POST".equals(request.getMethod())
+                || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails user) {
+            long waitNanos = admissionControlService.checkRateLimit(user.getId());
+            if (waitNanos > 0) {
+                reject(response, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1, "Too many booking requests, please slow down");
+                return false;
+            }
+        }
+
+        if (!admissionControlService.tryAcquireConcurrency()) {
+            reject(response, 1, "Booking service is busy, please try again shortly");
+            return false;
+        }
+        request.setAttribute(PERMIT_STARTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object startedAt = request.getAttribute(PERMIT_STARTED_AT);
+        if (startedAt == null) {
+            return;
+        }
+        request.removeAttribute(PERMIT_STARTED_AT);
+        boolean dropped = ex != null || response.getStatus() >= 500;
+        admissionControlService.releaseConcurrency(System.nanoTime() - (Long) startedAt, dropped);
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds, String message) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new MessageResponse(message));
+    }
+}
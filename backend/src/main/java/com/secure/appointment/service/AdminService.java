@@ -1,16 +1,27 @@
 package com.secure.appointment.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secure.appointment.dto.request.AppointmentFilter;
 import com.secure.appointment.dto.response.AppointmentResponse;
-import com.secure.appointment.dto.response.TimeSlotResponse;
+import com.secure.appointment.dto.response.CursorPage;
 import com.secure.appointment.entity.User;
-import com.secure.appointment.repository.AppointmentRepository;
 import com.secure.appointment.repository.UserRepository;
+import com.secure.appointment.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * AdminService: Administrative Logic
@@ -23,12 +34,38 @@ import java.util.stream.Collectors;
 @Service
 public class AdminService {
 
-    private final AppointmentRepository appointmentRepository;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // Same projection as AppointmentRepository.VIEW_SELECT, in SQL so filters can be appended as needed
+    private static final String LISTING_SELECT = "SELECT a.id, a.booked_at, a.status, c.name AS customer_name, " +
+            "s.id AS slot_id, s.start_time, s.end_time, s.is_booked, s.capacity, s.booked_count, p.name AS provider_name " +
+            "FROM appointments a JOIN users c ON c.id = a.customer_id " +
+            "JOIN time_slots s ON s.id = a.slot_id JOIN users p ON p.id = s.provider_id";
+
+    private static final RowMapper<AppointmentResponse> LISTING_ROW = (rs, rowNum) -> new AppointmentResponse(
+            rs.getLong("id"),
+            rs.getTimestamp("booked_at").toLocalDateTime(),
+            com.secure.appointment.entity.AppointmentStatus.valueOf(rs.getString("status")),
+            rs.getString("customer_name"),
+            rs.getLong("slot_id"),
+            rs.getTimestamp("start_time").toLocalDateTime(),
+            rs.getTimestamp("end_time").toLocalDateTime(),
+            rs.getBoolean("is_booked"),
+            rs.getInt("capacity"),
+            rs.getInt("booked_count"),
+            rs.getString("provider_name"));
+
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.admin.export.fetch-size:500}")
+    private int exportFetchSize;
 
-    public AdminService(AppointmentRepository appointmentRepository, UserRepository userRepository) {
-        this.appointmentRepository = appointmentRepository;
+    public AdminService(UserRepository userRepository, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
         this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -36,13 +73,97 @@ public class AdminService {
      * 
      * 1. TRIGGER: Admin Dashboard.
      * 
-     * 2. LOGIC: findAll() fetches the entire table.
+     * 2. LOGIC:
+     *    - Newest bookings first, one page at a time: seeks past the cursor's (bookedAt, id)
+     *      on idx_appointment_booked_at and reads one extra row instead of running a COUNT.
+     *    - Only the filters that are set are added to the WHERE clause, so each combination
+     *      gets a plan that can use its index (status, customer, provider, booking time).
      */
     @Transactional(readOnly = true)
-    public List<AppointmentResponse> getAllAppointments() {
-        return appointmentRepository.findAll().stream()
-                .map(com.secure.appointment.util.DtoMapper::toAppointmentResponse)
-                .collect(Collectors.toList());
+    public CursorPage<AppointmentResponse> getAllAppointments(AppointmentFilter filter, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        StringBuilder sql = new StringBuilder(LISTING_SELECT);
+        List<Object> args = new ArrayList<>();
+        appendFilters(filter, sql, args);
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            Timestamp afterTime = Timestamp.valueOf(after.getTime());
+            sql.append(" AND a.booked_at <= ? AND (a.booked_at < ? OR a.id < ?)");
+            args.add(afterTime);
+            args.add(afterTime);
+            args.add(after.getId());
+        }
+        sql.append(" ORDER BY a.booked_at DESC, a.id DESC LIMIT ?");
+        args.add(limit + 1);
+
+        List<AppointmentResponse> rows = jdbcTemplate.query(sql.toString(), LISTING_ROW, args.toArray());
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            AppointmentResponse last = rows.get(limit - 1);
+            nextCursor = new KeysetCursor(last.getBookedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(rows, nextCursor);
+    }
+
+    /**
+     * Function: exportAppointments
+     *
+     * 1. TRIGGER: GET /api/admin/appointments/export
+     *
+     * 2. LOGIC: Same query and filters as the listing, without a LIMIT. The rows come from a
+     *    forward-only, read-only cursor with a fixed fetch size (the read-only transaction keeps
+     *    the PostgreSQL driver from loading the whole result), and each row is written as one
+     *    NDJSON line as soon as it arrives.
+     *
+     * 3. OUTCOME: A full export never holds more than one fetch batch in memory.
+     */
+    @Transactional(readOnly = true)
+    public void exportAppointments(AppointmentFilter filter, OutputStream out) {
+        StringBuilder sql = new StringBuilder(LISTING_SELECT);
+        List<Object> args = new ArrayList<>();
+        appendFilters(filter, sql, args);
+        sql.append(" ORDER BY a.booked_at DESC, a.id DESC");
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(exportFetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, rs -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(LISTING_ROW.mapRow(rs, 0)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // Client went away: stop reading the cursor
+            }
+        });
+    }
+
+    private static void appendFilters(AppointmentFilter filter, StringBuilder sql, List<Object> args) {
+        sql.append(" WHERE 1 = 1");
+        if (filter.getStatus() != null) {
+            sql.append(" AND a.status = ?");
+            args.add(filter.getStatus().name());
+        }
+        if (filter.getProviderId() != null) {
+            sql.append(" AND s.provider_id = ?");
+            args.add(filter.getProviderId());
+        }
+        if (filter.getCustomerId() != null) {
+            sql.append(" AND a.customer_id = ?");
+            args.add(filter.getCustomerId());
+        }
+        if (filter.getFrom() != null) {
+            sql.append(" AND a.booked_at >= ?");
+            args.add(Timestamp.valueOf(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND a.booked_at < ?");
+            args.add(Timestamp.valueOf(filter.getTo()));
+        }
     }
 
     /**
@@ -0,0 +1,104 @@
+package com.secure.appointment.service;
+
+import com.secure.appointment.util.AimdConcurrencyLimiter;
+import com.secure.appointment.util.TokenBucket;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AdmissionControlService: Load shedding for the booking endpoints.
+ *
+ * What it does:
+ * Two cheap in-memory gates that run before a booking request touches the database:
+ * 1. PER-CUSTOMER RATE: a token bucket per user id (burst + steady refill), so one
+ *    scripted client cannot take every connection.
+ * 2. GLOBAL CONCURRENCY: an AIMD limiter that shrinks when bookings get slow and grows
+ *    back while they are fast, keeping the DB pool and slot row locks out of saturation.
+ * Both are per node. Rejected requests are counted in 'booking.admission.rejected'.
+ */
+@Service
+public class AdmissionControlService {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private AimdConcurrencyLimiter concurrencyLimiter;
+
+    @Value("${app.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.admission.rate.per-second:2}")
+    private double ratePerSecond;
+
+    @Value("${app.admission.rate.burst:10}")
+    private int burst;
+
+    @Value("${app.admission.concurrency.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${app.admission.concurrency.min-limit:4}")
+    private int minLimit;
+
+    @Value("${app.admission.concurrency.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${app.admission.concurrency.latency-target-ms:250}")
+    private long latencyTargetMs;
+
+    @Value("${app.admission.concurrency.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    public AdmissionControlService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        concurrencyLimiter = new AimdConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+                latencyTargetMs * 1_000_000, backoffRatio);
+        Gauge.builder("booking.admission.limit", concurrencyLimiter, AimdConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit for bookings")
+                .register(meterRegistry);
+        Gauge.builder("booking.admission.in_flight", concurrencyLimiter, AimdConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return 0 if the customer may proceed, otherwise nanoseconds until their next token
+     */
+    public long checkRateLimit(Long userId) {
+        long waitNanos = buckets.computeIfAbsent(userId, id -> new TokenBucket(burst, ratePerSecond)).tryAcquire();
+        if (waitNanos > 0) {
+            meterRegistry.counter("booking.admission.rejected", "reason", "rate_limit").increment();
+        }
+        return waitNanos;
+    }
+
+    public boolean tryAcquireConcurrency() {
+        if (concurrencyLimiter.tryAcquire()) {
+            return true;
+        }
+        meterRegistry.counter("booking.admission.rejected", "reason", "concurrency").increment();
+        return false;
+    }
+
+    public void releaseConcurrency(long latencyNanos, boolean dropped) {
+        concurrencyLimiter.release(latencyNanos, dropped);
+    }
+
+    // Full buckets carry no state, so dropping them keeps the map sized to recently active users
+    @Scheduled(fixedRateString = "${app.admission.bucket-sweep-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        buckets.values().removeIf(TokenBucket::isFull);
+    }
+}
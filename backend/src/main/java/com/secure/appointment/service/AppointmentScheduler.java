@@ -2,12 +2,9 @@ package com.secure.appointment.service;
 
 import com.secure.appointment.entity.Appointment;
 import com.secure.appointment.entity.AppointmentStatus;
-import com.secure.appointment.entity.TimeSlot;
 import com.secure.appointment.repository.AppointmentRepository;
-import com.secure.appointment.repository.TimeSlotRepository;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,35 +12,26 @@ import java.util.List;
 @Service
 public class AppointmentScheduler {
 
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(AppointmentScheduler.class);
+
     private final AppointmentRepository appointmentRepository;
-    private final TimeSlotRepository timeSlotRepository;
-    private final NotificationService notificationService;
+    private final HoldService holdService;
 
-    public AppointmentScheduler(AppointmentRepository appointmentRepository, TimeSlotRepository timeSlotRepository, NotificationService notificationService) {
+    public AppointmentScheduler(AppointmentRepository appointmentRepository, HoldService holdService) {
         this.appointmentRepository = appointmentRepository;
-        this.timeSlotRepository = timeSlotRepository;
-        this.notificationService = notificationService;
+        this.holdService = holdService;
     }
 
-    @Scheduled(fixedRate = 60000) 
-    @Transactional
+    // Safety net only: HoldService's timing wheel expires holds on time. This indexed sweep
+    // catches holds placed on another node or missed across a crash.
+    @Scheduled(fixedRateString = "${app.holds.sweep-interval-ms:300000}")
     public void cancelExpiredAppointments() {
-        LocalDateTime expirationTime = LocalDateTime.now().minusMinutes(15);
-        List<Appointment> expired = appointmentRepository.findByStatusAndBookedAtBefore(AppointmentStatus.PENDING, expirationTime);
+        List<Appointment> expired = appointmentRepository.findByStatusAndHoldExpiresAtBefore(AppointmentStatus.PENDING, LocalDateTime.now());
 
         for (Appointment appt : expired) {
-            appt.setStatus(AppointmentStatus.CANCELLED);
-            appt.setCancelledAt(LocalDateTime.now());
-            appointmentRepository.save(appt);
-
-            TimeSlot slot = appt.getSlot();
-            slot.setBooked(false);
-            timeSlotRepository.save(slot);
-
-            String message = "Your pending appointment for " + slot.getStartTime() + " has expired and was cancelled.";
-            notificationService.sendNotification(appt.getCustomer(), message);
-
-            System.out.println("Scheduler: Cancelled expired appointment " + appt.getId() + " for user " + appt.getCustomer().getEmail());
+            if (holdService.expireHold(appt.getId())) {
+                log.info("Cancelled expired hold {}", appt.getId());
+            }
         }
     }
 }
@@ -5,15 +5,30 @@ import com.secure.appointment.entity.Appointment;
 import com.secure.appointment.entity.AppointmentStatus;
 import com.secure.appointment.entity.TimeSlot;
 import com.secure.appointment.entity.User;
+import com.secure.appointment.event.BookingStatsEvent;
+import com.secure.appointment.event.SlotChangedEvent;
+import com.secure.appointment.exception.SlotFullException;
 import com.secure.appointment.repository.AppointmentRepository;
 import com.secure.appointment.repository.TimeSlotRepository;
 import com.secure.appointment.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,37 +37,113 @@ public class AppointmentService {
     private final AppointmentRepository appointmentRepository;
     private final TimeSlotRepository timeSlotRepository;
     private final UserRepository userRepository;
-    private final EmailService emailService;
+    private final OutboxService outboxService;
+    private final WaitlistService waitlistService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary optimisticAttempts;
 
     public AppointmentService(AppointmentRepository appointmentRepository, 
                               TimeSlotRepository timeSlotRepository, 
                               UserRepository userRepository,
-                              EmailService emailService) {
+                              OutboxService outboxService,
+                              WaitlistService waitlistService,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
         this.appointmentRepository = appointmentRepository;
         this.timeSlotRepository = timeSlotRepository;
         this.userRepository = userRepository;
-        this.emailService = emailService;
+        this.outboxService = outboxService;
+        this.waitlistService = waitlistService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.optimisticAttempts = DistributionSummary.builder("booking.optimistic.attempts")
+                .description("Transactions needed per optimistic booking")
+                .register(meterRegistry);
     }
 
-    @Transactional
-    public AppointmentResponse bookAppointment(Long customerId, Long slotId) {
-        User customer = userRepository.findById(customerId)
-                .orElseThrow(() -> new RuntimeException("Customer not found"));
+    @Value("${app.booking.strategy:PESSIMISTIC}")
+    private BookingStrategy bookingStrategy;
 
-        TimeSlot slot = timeSlotRepository.findByIdWithLock(slotId)
-                .orElseThrow(() -> new RuntimeException("Time slot not found"));
+    @Value("${app.booking.optimistic.max-attempts:5}")
+    private int optimisticMaxAttempts;
 
-        if (slot.getBookedCount() >= slot.getCapacity()) {
-            throw new RuntimeException("Slot is fully booked");
+    @Value("${app.booking.optimistic.backoff-ms:20}")
+    private long optimisticBackoffMs;
+
+    public BookingStrategy getBookingStrategy() {
+        return bookingStrategy;
+    }
+
+    /**
+     * Function: bookAppointment
+     *
+     * 1. TRIGGER: AppointmentController (all strategies except PARTITIONED).
+     *
+     * 2. LOGIC: OPTIMISTIC needs a fresh transaction per attempt, so the transaction
+     *    boundary is managed here instead of with @Transactional.
+     */
+    public AppointmentResponse bookAppointment(Long customerId, Long slotId) {
+        if (bookingStrategy == BookingStrategy.OPTIMISTIC) {
+            return bookWithOptimisticRetry(customerId, slotId);
         }
+        return transactionTemplate.execute(status -> bookInTransaction(customerId, slotId));
+    }
 
-        slot.setBookedCount(slot.getBookedCount() + 1);
+    private AppointmentResponse bookWithOptimisticRetry(Long customerId, Long slotId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                AppointmentResponse response = transactionTemplate.execute(status -> bookInTransaction(customerId, slotId));
+                recordOptimisticOutcome(attempt, "booked");
+                return response;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= optimisticMaxAttempts) {
+                    recordOptimisticOutcome(attempt, "conflict_exhausted");
+                    throw e;
+                }
+                backOff(attempt);
+            } catch (RuntimeException e) {
+                recordOptimisticOutcome(attempt, e instanceof SlotFullException ? "fully_booked" : "failed");
+                throw e;
+            }
+        }
+    }
 
-        if (slot.getBookedCount() >= slot.getCapacity()) {
-            slot.setBooked(true);
+    // Full jitter: sleep a random time up to base * 2^(attempt - 1) so retries spread out
+    private void backOff(int attempt) {
+        long ceiling = optimisticBackoffMs << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Booking interrupted");
         }
-        
-        timeSlotRepository.save(slot);
+    }
+
+    // Time spent in the statement that takes the slot row lock, including any wait behind other bookings
+    private <T> T timedLock(Supplier<T> lockingStatement) {
+        return meterRegistry.timer("booking.lock.wait", "strategy", bookingStrategy.name()).record(lockingStatement);
+    }
+
+    private void recordOptimisticOutcome(int attempts, String outcome) {
+        optimisticAttempts.record(attempts);
+        meterRegistry.counter("booking.optimistic.outcome", "outcome", outcome).increment();
+    }
+
+    private AppointmentResponse bookInTransaction(Long customerId, Long slotId) {
+        User customer = userRepository.findById(customerId)
+                .orElseThrow(() -> new RuntimeException("Customer not found"));
+
+        TimeSlot slot = switch (bookingStrategy) {
+            case CONDITIONAL_UPDATE -> claimSeatConditionally(slotId);
+            case OPTIMISTIC -> claimSeatOptimistically(slotId);
+            default -> claimSeatWithLock(slotId);
+        };
+        eventPublisher.publishEvent(SlotChangedEvent.of(slot));
+        eventPublisher.publishEvent(BookingStatsEvent.booked(slot, 1));
 
         Appointment appointment = Appointment.builder()
                 .customer(customer)
@@ -63,14 +154,182 @@ public class AppointmentService {
 
         Appointment savedAppt = appointmentRepository.save(appointment);
         
+        sendBookingConfirmation(customer, slot);
+
+        return com.secure.appointment.util.DtoMapper.toAppointmentResponse(savedAppt);
+    }
+
+    /**
+     * Function: bookAppointmentsForSlot
+     *
+     * 1. TRIGGER: BookingEngine, once per slot per drained batch of queued requests.
+     *
+     * 2. LOGIC: One lock and one capacity check for the whole group, then a single
+     *    saveAll so the appointment inserts go out as one JDBC batch.
+     *
+     * 3. OUTCOME: A list aligned with customerIds. Requests that did not fit in the
+     *    remaining capacity get a null entry (fully booked).
+     */
+    @Transactional
+    public List<AppointmentResponse> bookAppointmentsForSlot(Long slotId, List<Long> customerIds) {
+        Map<Long, User> customers = userRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        if (!customers.keySet().containsAll(customerIds)) {
+            throw new RuntimeException("Customer not found");
+        }
+
+        TimeSlot slot = timedLock(() -> timeSlotRepository.findByIdWithLock(slotId))
+                .orElseThrow(() -> new RuntimeException("Time slot not found"));
+
+        int seatsLeft = slot.isCancelled() ? 0 : Math.max(0, slot.getCapacity() - slot.getBookedCount());
+        int accepted = Math.min(seatsLeft, customerIds.size());
+
+        List<Appointment> appointments = new ArrayList<>(accepted);
+        for (Long customerId : customerIds.subList(0, accepted)) {
+            appointments.add(Appointment.builder()
+                    .customer(customers.get(customerId))
+                    .slot(slot)
+                    .status(AppointmentStatus.BOOKED)
+                    .bookedAt(LocalDateTime.now())
+                    .build());
+        }
+
+        if (accepted > 0) {
+            slot.setBookedCount(slot.getBookedCount() + accepted);
+            if (slot.getBookedCount() >= slot.getCapacity()) {
+                slot.setBooked(true);
+            }
+            timeSlotRepository.save(slot);
+            appointmentRepository.saveAll(appointments);
+            eventPublisher.publishEvent(SlotChangedEvent.of(slot));
+            eventPublisher.publishEvent(BookingStatsEvent.booked(slot, accepted));
+        }
+
+        List<AppointmentResponse> results = new ArrayList<>(customerIds.size());
+        for (Appointment appointment : appointments) {
+            sendBookingConfirmation(appointment.getCustomer(), slot);
+            results.add(com.secure.appointment.util.DtoMapper.toAppointmentResponse(appointment));
+        }
+        while (results.size() < customerIds.size()) {
+            results.add(null);
+        }
+        return results;
+    }
+
+    /**
+     * Function: bookAppointmentBatch
+     *
+     * 1. TRIGGER: POST /api/appointments/batch (e.g. a course of weekly sessions).
+     *
+     * 2. LOGIC:
+     *    - Locks every requested slot in one query, ordered by id, so two overlapping
+     *      batches always lock in the same order and cannot deadlock.
+     *    - If any slot is missing, cancelled or full, nothing is booked.
+     *    - Appointments go out as one JDBC batch; one combined email is sent.
+     */
+    @Transactional
+    public List<AppointmentResponse> bookAppointmentBatch(Long customerId, List<Long> slotIds) {
+        User customer = userRepository.findById(customerId)
+                .orElseThrow(() -> new RuntimeException("Customer not found"));
+
+        List<Long> orderedIds = slotIds.stream().distinct().sorted().toList();
+        List<TimeSlot> slots = timeSlotRepository.findAllByIdWithLock(orderedIds);
+        if (slots.size() != orderedIds.size()) {
+            throw new RuntimeException("Time slot not found");
+        }
+
+        List<Appointment> appointments = new ArrayList<>(slots.size());
+        for (TimeSlot slot : slots) {
+            if (slot.isCancelled() || slot.getBookedCount() >= slot.getCapacity()) {
+                throw new SlotFullException("Slot " + slot.getStartTime() + " is fully booked");
+            }
+            slot.setBookedCount(slot.getBookedCount() + 1);
+            if (slot.getBookedCount() >= slot.getCapacity()) {
+                slot.setBooked(true);
+            }
+            appointments.add(Appointment.builder()
+                    .customer(customer)
+                    .slot(slot)
+                    .status(AppointmentStatus.BOOKED)
+                    .bookedAt(LocalDateTime.now())
+                    .build());
+        }
+        timeSlotRepository.saveAll(slots);
+        appointmentRepository.saveAll(appointments);
+        slots.forEach(slot -> {
+            eventPublisher.publishEvent(SlotChangedEvent.of(slot));
+            eventPublisher.publishEvent(BookingStatsEvent.booked(slot, 1));
+        });
+
+        StringBuilder sessions = new StringBuilder();
+        for (TimeSlot slot : slots) {
+            sessions.append(String.format("- %s with %s\n", slot.getStartTime(), slot.getProvider().getEmail()));
+        }
+        String subject = "Appointment Confirmation - BookMySlot";
+        String body = String.format("Dear %s,\n\nYour %d appointments are confirmed:\n%s\nThank you for choosing BookMySlot.",
+                customer.getEmail(),
+                slots.size(),
+                sessions);
+        outboxService.enqueueEmail(customer.getEmail(), subject, body);
+
+        return appointments.stream()
+                .map(com.secure.appointment.util.DtoMapper::toAppointmentResponse)
+                .collect(Collectors.toList());
+    }
+
+    void sendBookingConfirmation(User customer, TimeSlot slot) {
         String subject = "Appointment Confirmation - BookMySlot";
         String body = String.format("Dear %s,\n\nYour appointment with %s is confirmed for %s.\n\nThank you for choosing BookMySlot.", 
                 customer.getEmail(), 
                 slot.getProvider().getEmail(), 
                 slot.getStartTime());
-        emailService.sendEmail(customer.getEmail(), subject, body);
+        outboxService.enqueueEmail(customer.getEmail(), subject, body);
+    }
 
-        return com.secure.appointment.util.DtoMapper.toAppointmentResponse(savedAppt);
+    private TimeSlot claimSeatWithLock(Long slotId) {
+        TimeSlot slot = timedLock(() -> timeSlotRepository.findByIdWithLock(slotId))
+                .orElseThrow(() -> new RuntimeException("Time slot not found"));
+
+        if (slot.getBookedCount() >= slot.getCapacity()) {
+            throw new SlotFullException();
+        }
+
+        slot.setBookedCount(slot.getBookedCount() + 1);
+
+        if (slot.getBookedCount() >= slot.getCapacity()) {
+            slot.setBooked(true);
+        }
+        
+        return timeSlotRepository.save(slot);
+    }
+
+    // The guarded UPDATE takes the row lock only for the rest of this transaction,
+    // and zero updated rows means there was no seat left to claim.
+    private TimeSlot claimSeatConditionally(Long slotId) {
+        if (timedLock(() -> timeSlotRepository.claimSeat(slotId)) == 0) {
+            if (!timeSlotRepository.existsById(slotId)) {
+                throw new RuntimeException("Time slot not found");
+            }
+            throw new SlotFullException();
+        }
+        return timeSlotRepository.findById(slotId)
+                .orElseThrow(() -> new RuntimeException("Time slot not found"));
+    }
+
+    // No lock is taken: the @Version check on flush fails if another booking changed the slot first
+    private TimeSlot claimSeatOptimistically(Long slotId) {
+        TimeSlot slot = timeSlotRepository.findById(slotId)
+                .orElseThrow(() -> new RuntimeException("Time slot not found"));
+
+        if (slot.isCancelled() || slot.getBookedCount() >= slot.getCapacity()) {
+            throw new SlotFullException();
+        }
+
+        slot.setBookedCount(slot.getBookedCount() + 1);
+        if (slot.getBookedCount() >= slot.getCapacity()) {
+            slot.setBooked(true);
+        }
+        return timeSlotRepository.saveAndFlush(slot);
     }
 
     @Transactional
@@ -86,26 +345,36 @@ public class AppointmentService {
             throw new RuntimeException("Appointment is already cancelled");
         }
 
+        // Guarded on the status we read: if a hold expiry or a second cancel got there first,
+        // this matches no row and the seat is not given back twice
+        LocalDateTime now = LocalDateTime.now();
+        boolean wasBooked = appointment.getStatus() != AppointmentStatus.PENDING;
+        if (appointmentRepository.cancelIfStatus(appointmentId, appointment.getStatus(), now) == 0) {
+            throw new RuntimeException("Appointment is already cancelled");
+        }
+        appointment.setStatus(AppointmentStatus.CANCELLED);
+        appointment.setCancelledAt(now);
+        appointment.setHoldExpiresAt(null); // A cancelled hold counts as cancelled, not expired
+
         TimeSlot slot = appointment.getSlot();
         slot.setBookedCount(slot.getBookedCount() - 1);
         slot.setBooked(false); 
         timeSlotRepository.save(slot);
-
-        appointment.setStatus(AppointmentStatus.CANCELLED);
-        appointment.setCancelledAt(LocalDateTime.now());
-        appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(SlotChangedEvent.of(slot));
+        eventPublisher.publishEvent(BookingStatsEvent.cancelled(slot, 1, wasBooked));
         
         String subject = "Appointment Cancellation - BookMySlot";
         String body = String.format("Dear %s,\n\nYour appointment for %s has been cancelled successfully.\n\nRegards,\nBookMySlot Team", 
                 appointment.getCustomer().getEmail(), 
                 slot.getStartTime());
-        emailService.sendEmail(appointment.getCustomer().getEmail(), subject, body);
+        outboxService.enqueueEmail(appointment.getCustomer().getEmail(), subject, body);
+
+        // Hand the freed seat to the head of the waitlist in this same transaction
+        waitlistService.promoteFreedSeats(slot.getId());
     }
 
     @Transactional(readOnly = true)
     public List<AppointmentResponse> getMyAppointments(Long customerId) {
-        return appointmentRepository.findByCustomerIdOrderByBookedAtDesc(customerId).stream()
-                .map(com.secure.appointment.util.DtoMapper::toAppointmentResponse)
-                .collect(Collectors.toList());
+        return appointmentRepository.findViewsByCustomerId(customerId);
     }
 }
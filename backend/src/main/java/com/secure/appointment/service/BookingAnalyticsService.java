@@ -0,0 +1,321 @@
+package com.secure.appointment.service;
+
+import com.secure.appointment.dto.response.ProviderDailyStatsResponse;
+import com.secure.appointment.event.BookingStatsEvent;
+import com.secure.appointment.repository.ProviderDailyStatsRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BookingAnalyticsService: Per-provider, per-day booking rollups for the admin dashboard.
+ *
+ * What it does:
+ * - Collects BookingStatsEvent deltas after commit and coalesces them in memory per
+ *   (provider, day), so a burst of bookings on one popular day becomes ONE row update
+ *   instead of a hot row locked by every booking transaction.
+ * - Flushes the coalesced deltas on a short timer (UPDATE, INSERT if the row is new).
+ * - Answers date-range queries from provider_daily_stats only; never touches appointments.
+ * - rebuild() recomputes the rollups from raw appointments and slots in parallel day chunks.
+ *
+ * Deltas not yet flushed are lost on a crash; a rebuild of the affected days corrects that.
+ */
+@Service
+public class BookingAnalyticsService {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(BookingAnalyticsService.class);
+
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private final ProviderDailyStatsRepository statsRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final ExecutorService rebuildExecutor;
+
+    private Map<Key, long[]> pending = new HashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock(); // One writer at a time: flush or rebuild
+    private final ReentrantReadWriteLock commitGate = new ReentrantReadWriteLock();
+
+    @Value("${app.analytics.rebuild.chunk-days:7}")
+    private int chunkDays;
+
+    public BookingAnalyticsService(ProviderDailyStatsRepository statsRepository, JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.analytics.rebuild.parallelism:4}") int parallelism) {
+        this.statsRepository = statsRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.rebuildExecutor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "analytics-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        flush();
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * Registers the event's delta once its transaction commits. The commit gate's read side is
+     * held from just before the commit until the delta is in 'pending', so a rebuild that holds
+     * the write side sees every committed event already pending (see rebuildChunk).
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBookingStats(BookingStatsEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            addPending(event);
+            return;
+        }
+        commitGate.readLock().lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        addPending(event);
+                    }
+                } finally {
+                    commitGate.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    private void addPending(BookingStatsEvent event) {
+        Key key = new Key(event.getProviderId(), event.getDay());
+        synchronized (this) {
+            long[] delta = pending.computeIfAbsent(key, k -> new long[4]);
+            delta[0] += event.getBookings();
+            delta[1] += event.getCancellations();
+            delta[2] += event.getExpiries();
+            delta[3] += event.getSeatsOffered();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProviderDailyStatsResponse> getStats(LocalDate from, LocalDate to, Long providerId) {
+        checkRange(from, to);
+        return providerId == null
+                ? statsRepository.findViews(from, to)
+                : statsRepository.findViewsByProvider(providerId, from, to);
+    }
+
+    /**
+     * Function: flush
+     *
+     * 1. TRIGGER: Timer (app.analytics.flush-interval-ms) and shutdown.
+     *
+     * 2. LOGIC: Swaps out the pending deltas and applies them in one transaction: one batched
+     *    UPDATE, then one batched INSERT for the (provider, day) rows that did not exist yet.
+     *    If the write fails, the deltas are merged back and retried on the next tick.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.flush-interval-ms:5000}")
+    public void flush() {
+        if (!writeLock.tryLock()) {
+            return; // A rebuild is running; do not block the scheduler thread, flush on a later tick
+        }
+        try {
+            Map<Key, long[]> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new HashMap<>();
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+            } catch (RuntimeException e) {
+                log.warn("Analytics flush failed, retrying next tick: {}", e.getMessage());
+                synchronized (this) {
+                    batch.forEach((key, delta) -> {
+                        long[] merged = pending.computeIfAbsent(key, k -> new long[4]);
+                        for (int i = 0; i < 4; i++) {
+                            merged[i] += delta[i];
+                        }
+                    });
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void write(Map<Key, long[]> batch) {
+        List<Key> keys = new ArrayList<>(batch.keySet());
+        int[] updated = jdbcTemplate.batchUpdate("UPDATE provider_daily_stats SET bookings = bookings + ?, " +
+                        "cancellations = cancellations + ?, expiries = expiries + ?, seats_offered = seats_offered + ? " +
+                        "WHERE provider_id = ? AND stat_date = ?",
+                keys.stream().map(key -> row(batch.get(key), key)).toList());
+
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (updated[i] == 0) {
+                inserts.add(row(batch.get(keys.get(i)), keys.get(i)));
+            }
+        }
+        insert(inserts);
+    }
+
+    private void insert(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO provider_daily_stats (bookings, cancellations, expiries, seats_offered, " +
+                    "provider_id, stat_date) VALUES (?, ?, ?, ?, ?, ?)", rows);
+        }
+    }
+
+    private static Object[] row(long[] counts, Key key) {
+        return new Object[] { counts[0], counts[1], counts[2], counts[3], key.providerId, Date.valueOf(key.day) };
+    }
+
+    /**
+     * Function: rebuild
+     *
+     * 1. TRIGGER: POST /api/admin/analytics/rebuild (after a crash, a bug fix or a backfill).
+     *
+     * 2. LOGIC:
+     *    - Splits [from, to] into chunks of app.analytics.rebuild.chunk-days and recomputes
+     *      them in parallel, each in its own transaction: delete the chunk's rollups, aggregate
+     *      slots and appointments with two GROUP BY queries, insert the result in one batch.
+     *    - Holds the write lock so the timer cannot flush meanwhile. Each chunk reads from one
+     *      REPEATABLE READ snapshot and drops the pending deltas for its days at the moment that
+     *      snapshot is taken: those events had committed, so the raw rows already contain them,
+     *      and every later event is missing from the snapshot and stays pending.
+     *
+     * 3. OUTCOME: Number of (provider, day) rows written.
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        writeLock.lock();
+        try {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(chunkDays)) {
+                LocalDate chunkStart = start;
+                LocalDate chunkEnd = start.plusDays(chunkDays).isAfter(to.plusDays(1)) ? to.plusDays(1) : start.plusDays(chunkDays);
+                chunks.add(rebuildExecutor.submit(() -> rebuildChunk(chunkStart, chunkEnd)));
+            }
+
+            int rows = 0;
+            for (Future<Integer> chunk : chunks) {
+                rows += chunk.get();
+            }
+            log.info("Analytics rebuild {}..{}: {} rows in {} chunks", from, to, rows, chunks.size());
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Analytics rebuild interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Analytics rebuild failed: " + e.getCause().getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Recomputes the days [start, end)
+    private int rebuildChunk(LocalDate start, LocalDate end) {
+        Timestamp from = Timestamp.valueOf(start.atStartOfDay());
+        Timestamp until = Timestamp.valueOf(end.atStartOfDay());
+
+        return snapshotTemplate.execute(status -> {
+            // With the gate closed no event is between its commit and 'pending': everything pending
+            // is in the snapshot the first statement pins, and nothing in flight can be
+            commitGate.writeLock().lock();
+            try {
+                synchronized (this) {
+                    pending.keySet().removeIf(key -> !key.day.isBefore(start) && key.day.isBefore(end));
+                }
+                jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            } finally {
+                commitGate.writeLock().unlock();
+            }
+
+            jdbcTemplate.update("DELETE FROM provider_daily_stats WHERE stat_date >= ? AND stat_date < ?",
+                    Date.valueOf(start), Date.valueOf(end));
+
+            Map<Key, long[]> rows = new HashMap<>();
+            jdbcTemplate.query("SELECT s.provider_id, CAST(s.start_time AS DATE) AS stat_date, SUM(s.capacity) AS seats " +
+                    "FROM time_slots s WHERE s.start_time >= ? AND s.start_time < ? AND COALESCE(s.is_cancelled, FALSE) = FALSE " +
+                    "GROUP BY s.provider_id, CAST(s.start_time AS DATE)", rs -> {
+                Key key = new Key(rs.getLong("provider_id"), rs.getDate("stat_date").toLocalDate());
+                rows.computeIfAbsent(key, k -> new long[4])[3] = rs.getLong("seats");
+            }, from, until);
+            jdbcTemplate.query("SELECT s.provider_id, CAST(s.start_time AS DATE) AS stat_date, " +
+                    "SUM(CASE WHEN a.status IN ('BOOKED', 'COMPLETED') THEN 1 ELSE 0 END) AS bookings, " +
+                    "SUM(CASE WHEN a.status = 'CANCELLED' AND a.hold_expires_at IS NULL THEN 1 ELSE 0 END) AS cancellations, " +
+                    "SUM(CASE WHEN a.status = 'CANCELLED' AND a.hold_expires_at IS NOT NULL THEN 1 ELSE 0 END) AS expiries " +
+                    "FROM appointments a JOIN time_slots s ON s.id = a.slot_id " +
+                    "WHERE s.start_time >= ? AND s.start_time < ? " +
+                    "GROUP BY s.provider_id, CAST(s.start_time AS DATE)", rs -> {
+                Key key = new Key(rs.getLong("provider_id"), rs.getDate("stat_date").toLocalDate());
+                long[] counts = rows.computeIfAbsent(key, k -> new long[4]);
+                counts[0] = rs.getLong("bookings");
+                counts[1] = rs.getLong("cancellations");
+                counts[2] = rs.getLong("expiries");
+            }, from, until);
+
+            insert(rows.entrySet().stream().map(e -> row(e.getValue(), e.getKey())).toList());
+            return rows.size();
+        });
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range is limited to " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    private static final class Key {
+        private final Long providerId;
+        private final LocalDate day;
+
+        private Key(Long providerId, LocalDate day) {
+            this.providerId = providerId;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && providerId.equals(key.providerId) && day.equals(key.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(providerId, day);
+        }
+    }
+}
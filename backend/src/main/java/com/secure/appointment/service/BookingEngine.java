@@ -0,0 +1,176 @@
+package com.secure.appointment.service;
+
+import com.secure.appointment.dto.response.AppointmentResponse;
+import com.secure.appointment.exception.SlotFullException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * BookingEngine: Partitioned Single-Writer Booking
+ *
+ * What it does:
+ * Active when app.booking.strategy=PARTITIONED.
+ * Each booking request is routed by slot id to one of N partitions. A partition is a
+ * single thread with its own queue, so all requests for one slot are handled by
+ * one writer instead of racing for the time_slots row lock.
+ *
+ * The partition drains whatever is queued, groups it by slot and group-commits
+ * each group through AppointmentService.bookAppointmentsForSlot (one lock, one
+ * capacity check, one batched insert). Callers only hold a CompletableFuture
+ * while they wait, not a Tomcat thread or a DB connection.
+ */
+@Service
+public class BookingEngine {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(BookingEngine.class);
+
+    private final AppointmentService appointmentService;
+
+    @Value("${app.booking.engine.partitions:4}")
+    private int partitionCount;
+
+    @Value("${app.booking.engine.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.booking.engine.max-batch:256}")
+    private int maxBatch;
+
+    private Partition[] partitions = new Partition[0];
+
+    public BookingEngine(AppointmentService appointmentService) {
+        this.appointmentService = appointmentService;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i);
+            partitions[i].start();
+        }
+        log.info("Booking engine started with {} partitions", partitionCount);
+    }
+
+    @PreDestroy
+    void stop() {
+        for (Partition partition : partitions) {
+            partition.interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return appointmentService.getBookingStrategy() == BookingStrategy.PARTITIONED;
+    }
+
+    /**
+     * Function: submit
+     *
+     * 1. TRIGGER: AppointmentController.bookAppointment.
+     *
+     * 2. LOGIC: Picks the partition for the slot and enqueues the command.
+     *    A full queue fails fast instead of blocking the request thread.
+     *
+     * 3. OUTCOME: A future completed with the appointment, or exceptionally with
+     *    SlotFullException / the underlying error.
+     */
+    public CompletableFuture<AppointmentResponse> submit(Long customerId, Long slotId) {
+        BookingCommand command = new BookingCommand(customerId, slotId);
+        Partition partition = partitions[Math.floorMod(slotId.hashCode(), partitions.length)];
+        if (!partition.queue.offer(command)) {
+            command.future.completeExceptionally(new RuntimeException("Booking queue is full, please try again"));
+        }
+        return command.future;
+    }
+
+    private void commitGroup(Long slotId, List<BookingCommand> group) {
+        List<Long> customerIds = group.stream().map(c -> c.customerId).toList();
+        List<AppointmentResponse> results;
+        try {
+            results = appointmentService.bookAppointmentsForSlot(slotId, customerIds);
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                group.get(0).future.completeExceptionally(e);
+                return;
+            }
+            // Isolate the failing command so one bad request does not fail the whole group
+            for (BookingCommand command : group) {
+                commitGroup(slotId, List.of(command));
+            }
+            return;
+        }
+
+        for (int i = 0; i < group.size(); i++) {
+            AppointmentResponse response = results.get(i);
+            if (response != null) {
+                group.get(i).future.complete(response);
+            } else {
+                group.get(i).future.completeExceptionally(new SlotFullException());
+            }
+        }
+    }
+
+    private static class BookingCommand {
+        private final Long customerId;
+        private final Long slotId;
+        private final CompletableFuture<AppointmentResponse> future = new CompletableFuture<>();
+
+        private BookingCommand(Long customerId, Long slotId) {
+            this.customerId = customerId;
+            this.slotId = slotId;
+        }
+    }
+
+    private class Partition extends Thread {
+        private final BlockingQueue<BookingCommand> queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        private Partition(int index) {
+            super("booking-partition-" + index);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<BookingCommand> batch = new ArrayList<>(maxBatch);
+            while (!isInterrupted()) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    break;
+                }
+                queue.drainTo(batch, maxBatch - 1);
+
+                // Keep arrival order within each slot so the queue stays first-come, first-served
+                Map<Long, List<BookingCommand>> bySlot = new LinkedHashMap<>();
+                for (BookingCommand command : batch) {
+                    bySlot.computeIfAbsent(command.slotId, id -> new ArrayList<>()).add(command);
+                }
+                for (Map.Entry<Long, List<BookingCommand>> entry : bySlot.entrySet()) {
+                    try {
+                        commitGroup(entry.getKey(), entry.getValue());
+                    } catch (RuntimeException e) {
+                        log.error("Booking group for slot {} failed", entry.getKey(), e);
+                        entry.getValue().forEach(c -> c.future.completeExceptionally(e));
+                    }
+                }
+                batch.clear();
+            }
+
+            List<BookingCommand> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            remaining.forEach(c -> c.future.completeExceptionally(new RuntimeException("Booking engine is shutting down")));
+        }
+    }
+}
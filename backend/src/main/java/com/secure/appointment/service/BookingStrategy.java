@@ -0,0 +1,17 @@
+package com.secure.appointment.service;
+
+/**
+ * BookingStrategy: How a seat on a TimeSlot is claimed.
+ *
+ * Selected with the 'app.booking.strategy' property.
+ * - PESSIMISTIC: SELECT ... FOR UPDATE on the slot, then increment in Java.
+ * - CONDITIONAL_UPDATE: One guarded UPDATE that only succeeds while seats remain.
+ * - PARTITIONED: Requests are queued per slot on the BookingEngine and group-committed.
+ * - OPTIMISTIC: Unlocked read, @Version-checked update, bounded retry with jittered backoff.
+ */
+public enum BookingStrategy {
+    PESSIMISTIC,
+    CONDITIONAL_UPDATE,
+    PARTITIONED,
+    OPTIMISTIC
+}
@@ -5,11 +5,13 @@ import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailPreparationException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class EmailService {
 
@@ -24,8 +26,7 @@ public class EmailService {
     @Value("${spring.mail.username:simulated}")
     private String senderEmail;
 
-    @Async
-    public void sendEmail(String to, String subject, String body) {
+    public MimeMessage build(String to, String subject, String body) {
         try {
             MimeMessage message = javaMailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true);
@@ -33,10 +34,18 @@ public class EmailService {
             helper.setTo(to);
             helper.setSubject(subject);
             helper.setText(body, true);
-            javaMailSender.send(message);
-            log.info("Email sent successfully to {}", to);
+            return message;
         } catch (MessagingException e) {
-            log.error("Failed to send email to {}", to, e);
+            throw new MailPreparationException("Could not build email to " + to, e);
         }
     }
+
+    /**
+     * Sends a batch over one SMTP connection. On partial failure the MailSendException's
+     * failed-messages map says which messages did not go out.
+     */
+    public void deliverAll(List<MimeMessage> messages) {
+        javaMailSender.send(messages.toArray(new MimeMessage[0]));
+        log.info("{} email(s) sent successfully", messages.size());
+    }
 }
@@ -0,0 +1,292 @@
+package com.secure.appointment.service;
+
+import com.secure.appointment.dto.response.AppointmentResponse;
+import com.secure.appointment.dto.response.HoldResponse;
+import com.secure.appointment.entity.Appointment;
+import com.secure.appointment.entity.AppointmentStatus;
+import com.secure.appointment.entity.TimeSlot;
+import com.secure.appointment.entity.User;
+import com.secure.appointment.event.BookingStatsEvent;
+import com.secure.appointment.event.SlotChangedEvent;
+import com.secure.appointment.exception.SlotFullException;
+import com.secure.appointment.repository.AppointmentRepository;
+import com.secure.appointment.repository.TimeSlotRepository;
+import com.secure.appointment.repository.UserRepository;
+import com.secure.appointment.util.HierarchicalTimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HoldService: Timed Seat Holds
+ *
+ * What it does:
+ * A hold claims a seat as a PENDING appointment with a token and a TTL.
+ * The customer then confirms it (BOOKED) or releases it (CANCELLED).
+ *
+ * Expiry is driven by an in-memory HierarchicalTimingWheel instead of polling:
+ * - Every hold placed on this node is scheduled on the wheel after commit.
+ * - On startup the wheel is rebuilt from all outstanding PENDING holds in the DB.
+ * - When a hold's deadline passes, the seat goes back to inventory within one tick.
+ * AppointmentScheduler keeps a slow, indexed sweep as a safety net for holds
+ * placed on other nodes.
+ */
+@Service
+public class HoldService {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(HoldService.class);
+
+    private final AppointmentRepository appointmentRepository;
+    private final TimeSlotRepository timeSlotRepository;
+    private final UserRepository userRepository;
+    private final AppointmentService appointmentService;
+    private final OutboxService outboxService;
+    private final WaitlistService waitlistService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, HierarchicalTimingWheel.Timeout> timeouts = new ConcurrentHashMap<>();
+    private ExecutorService expiryExecutor;
+    private HierarchicalTimingWheel wheel;
+
+    @Value("${app.holds.ttl-seconds:600}")
+    private long holdTtlSeconds;
+
+    @Value("${app.holds.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${app.holds.wheel-size:64}")
+    private int wheelSize;
+
+    public HoldService(AppointmentRepository appointmentRepository, TimeSlotRepository timeSlotRepository,
+                       UserRepository userRepository, AppointmentService appointmentService,
+                       OutboxService outboxService, WaitlistService waitlistService,
+                       ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.timeSlotRepository = timeSlotRepository;
+        this.userRepository = userRepository;
+        this.appointmentService = appointmentService;
+        this.outboxService = outboxService;
+        this.waitlistService = waitlistService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void startWheel() {
+        expiryExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        wheel = new HierarchicalTimingWheel("hold-timing-wheel", tickMs, wheelSize, expiryExecutor);
+    }
+
+    @PreDestroy
+    void stopWheel() {
+        wheel.stop();
+        expiryExecutor.shutdown();
+    }
+
+    /**
+     * Rebuilds the wheel from the DB so holds survive a restart.
+     * Holds that expired while the node was down fire immediately.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildFromDatabase() {
+        List<Appointment> holds = appointmentRepository.findByStatusAndHoldExpiresAtBefore(
+                AppointmentStatus.PENDING, LocalDateTime.now().plusYears(100));
+        holds.forEach(hold -> schedule(hold.getId(), hold.getHoldExpiresAt()));
+        log.info("Hold timing wheel rebuilt with {} outstanding holds", holds.size());
+    }
+
+    /**
+     * Function: placeHold
+     *
+     * 1. TRIGGER: Customer picks a slot and starts checkout.
+     *
+     * 2. LOGIC: Claims the seat with the single guarded UPDATE (no long row lock),
+     *    records a PENDING appointment with a random token and schedules its expiry after commit.
+     */
+    @Transactional
+    public HoldResponse placeHold(Long customerId, Long slotId) {
+        User customer = userRepository.findById(customerId)
+                .orElseThrow(() -> new RuntimeException("Customer not found"));
+
+        if (timeSlotRepository.claimSeat(slotId) == 0) {
+            if (!timeSlotRepository.existsById(slotId)) {
+                throw new RuntimeException("Time slot not found");
+            }
+            throw new SlotFullException();
+        }
+        TimeSlot slot = timeSlotRepository.findById(slotId)
+                .orElseThrow(() -> new RuntimeException("Time slot not found"));
+        eventPublisher.publishEvent(SlotChangedEvent.of(slot));
+
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(holdTtlSeconds);
+        Appointment hold = appointmentRepository.save(Appointment.builder()
+                .customer(customer)
+                .slot(slot)
+                .status(AppointmentStatus.PENDING)
+                .bookedAt(LocalDateTime.now())
+                .holdToken(UUID.randomUUID().toString())
+                .holdExpiresAt(expiresAt)
+                .build());
+
+        Long holdId = hold.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                schedule(holdId, expiresAt);
+            }
+        });
+
+        return new HoldResponse(hold.getHoldToken(), expiresAt,
+                com.secure.appointment.util.DtoMapper.toAppointmentResponse(hold));
+    }
+
+    /**
+     * Function: confirmHold
+     *
+     * 1. TRIGGER: Customer completes checkout for a held seat.
+     *
+     * 2. LOGIC: Flips the hold to BOOKED with a guarded UPDATE (still PENDING, not past its deadline and
+     *    its slot not cancelled), so an expiry, release or slot cancellation racing with it cannot also
+     *    act on it. The confirmation is only queued when this call won.
+     */
+    @Transactional
+    public AppointmentResponse confirmHold(Long customerId, String holdToken) {
+        Appointment hold = findOwnHold(customerId, holdToken);
+        LocalDateTime now = LocalDateTime.now();
+        if (appointmentRepository.confirmPendingHold(hold.getId(), now) == 0) {
+            if (hold.getSlot().isCancelled()) {
+                throw new RuntimeException("Slot has been cancelled");
+            }
+            throw new RuntimeException(hold.getHoldExpiresAt().isAfter(now) ? "Hold is no longer active" : "Hold has expired");
+        }
+
+        // Mirror the UPDATE on the loaded entity so the response and the flush agree with the row
+        hold.setStatus(AppointmentStatus.BOOKED);
+        hold.setHoldExpiresAt(null);
+        cancelTimeout(hold.getId());
+        eventPublisher.publishEvent(BookingStatsEvent.booked(hold.getSlot(), 1));
+
+        appointmentService.sendBookingConfirmation(hold.getCustomer(), hold.getSlot());
+        return com.secure.appointment.util.DtoMapper.toAppointmentResponse(hold);
+    }
+
+    @Transactional
+    public void releaseHold(Long customerId, String holdToken) {
+        Appointment hold = findOwnHold(customerId, holdToken);
+        LocalDateTime now = LocalDateTime.now();
+        if (appointmentRepository.cancelIfStatus(hold.getId(), AppointmentStatus.PENDING, now) == 0) {
+            throw new RuntimeException("Hold is no longer active"); // Confirmed, released or expired meanwhile
+        }
+        hold.setStatus(AppointmentStatus.CANCELLED);
+        hold.setCancelledAt(now);
+        hold.setHoldExpiresAt(null);
+        cancelTimeout(hold.getId());
+
+        TimeSlot slot = hold.getSlot();
+        eventPublisher.publishEvent(SlotChangedEvent.of(slot));
+        eventPublisher.publishEvent(BookingStatsEvent.cancelled(slot, 1, false));
+        timeSlotRepository.releaseSeat(slot.getId());
+        waitlistService.promoteFreedSeats(slot.getId());
+    }
+
+    /**
+     * Function: expireHold
+     *
+     * 1. TRIGGER: Timing wheel deadline, or the fallback sweep in AppointmentScheduler.
+     *
+     * 2. LOGIC: Cancels the hold with a guarded UPDATE in its own transaction (still PENDING and
+     *    past its deadline). A hold confirmed, released or cancelled in the meantime matches no row
+     *    and is left alone; the seat is released only when this call won.
+     *
+     * 3. OUTCOME: Returns true if the hold was expired.
+     */
+    public boolean expireHold(Long appointmentId) {
+        timeouts.remove(appointmentId);
+        Boolean expired = transactionTemplate.execute(status -> {
+            if (appointmentRepository.expirePendingHold(appointmentId, LocalDateTime.now()) == 0) {
+                return false;
+            }
+            Appointment hold = appointmentRepository.findById(appointmentId).orElseThrow();
+
+            TimeSlot slot = hold.getSlot();
+            String message = "Your pending appointment for " + slot.getStartTime() + " has expired and was cancelled.";
+            outboxService.enqueueNotification(hold.getCustomer(), message);
+
+            eventPublisher.publishEvent(SlotChangedEvent.of(slot));
+            eventPublisher.publishEvent(BookingStatsEvent.expired(slot));
+            timeSlotRepository.releaseSeat(slot.getId());
+            waitlistService.promoteFreedSeats(slot.getId());
+            return true;
+        });
+        return Boolean.TRUE.equals(expired);
+    }
+
+    /**
+     * Drops the expiry timers of holds cancelled outside this service (a provider cancelling the slot)
+     * once that transaction commits. A timer left behind would only find a non-PENDING row.
+     */
+    public void forgetHoldsAfterCommit(List<Long> holdIds) {
+        if (holdIds.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                holdIds.forEach(HoldService.this::cancelTimeout);
+            }
+        });
+    }
+
+    private Appointment findOwnHold(Long customerId, String holdToken) {
+        Appointment hold = appointmentRepository.findByHoldToken(holdToken)
+                .orElseThrow(() -> new RuntimeException("Hold not found"));
+        if (!hold.getCustomer().getId().equals(customerId)) {
+            throw new RuntimeException("Access Denied: This hold belongs to another user");
+        }
+        if (hold.getStatus() != AppointmentStatus.PENDING) {
+            throw new RuntimeException("Hold is no longer active");
+        }
+        return hold;
+    }
+
+    private void schedule(Long appointmentId, LocalDateTime expiresAt) {
+        long deadline = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        timeouts.put(appointmentId, wheel.schedule(deadline, () -> {
+            try {
+                expireHold(appointmentId);
+            } catch (RuntimeException e) {
+                log.error("Failed to expire hold {}", appointmentId, e);
+            }
+        }));
+    }
+
+    private void cancelTimeout(Long appointmentId) {
+        HierarchicalTimingWheel.Timeout timeout = timeouts.remove(appointmentId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.secure.appointment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secure.appointment.dto.response.MessageResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * IdempotencyService: Honours the Idempotency-Key header on write endpoints.
+ *
+ * What it does:
+ * - First request with a key: reserves it, runs the action, stores status + JSON body.
+ * - Replay of a completed key: returns the stored response without running the action
+ *   (no slot lock, no email). Marked with the 'Idempotent-Replayed: true' header.
+ * - Replay while the first request is still running: 409 Conflict.
+ * - Same key reused for a different request: 422 Unprocessable Entity.
+ * - Failed actions release the key so the client can retry.
+ *
+ * Keys are scoped per user and per operation, so two users can never collide.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    public IdempotencyService(IdempotencyStore store, ObjectMapper objectMapper) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+    }
+
+    public ResponseEntity<?> execute(Long userId, String idempotencyKey, String operation, String fingerprint,
+                                     Supplier<ResponseEntity<?>> action) {
+        return executeAsync(userId, idempotencyKey, operation, fingerprint,
+                () -> CompletableFuture.completedFuture(action.get())).join();
+    }
+
+    public CompletableFuture<ResponseEntity<?>> executeAsync(Long userId, String idempotencyKey, String operation, String fingerprint,
+                                                             Supplier<CompletableFuture<ResponseEntity<?>>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > 200) {
+            throw new IllegalArgumentException(HEADER + " must be at most 200 characters");
+        }
+
+        String key = userId + ":" + operation + ":" + idempotencyKey;
+        Duration ttl = Duration.ofMinutes(ttlMinutes);
+
+        Optional<IdempotentResponse> existing = store.reserve(key, fingerprint, ttl);
+        if (existing.isPresent()) {
+            return CompletableFuture.completedFuture(replay(existing.get(), fingerprint));
+        }
+
+        CompletableFuture<ResponseEntity<?>> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            store.release(key);
+            throw e;
+        }
+        return result.whenComplete((response, error) -> {
+            if (error != null || !response.getStatusCode().is2xxSuccessful()) {
+                store.release(key);
+            } else {
+                store.complete(key, new IdempotentResponse(fingerprint, response.getStatusCode().value(), toJson(response.getBody())), ttl);
+            }
+        });
+    }
+
+    private ResponseEntity<?> replay(IdempotentResponse stored, String fingerprint) {
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(new MessageResponse(HEADER + " was already used for a different request"));
+        }
+        if (stored.isInProgress()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new MessageResponse("A request with this " + HEADER + " is still being processed"));
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.getStatus()).header("Idempotent-Replayed", "true");
+        if (stored.getBody() == null) {
+            return builder.build();
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(stored.getBody());
+    }
+
+    private String toJson(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store idempotent response", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.secure.appointment.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * IdempotencyStore: Bounded, TTL-evicted storage for Idempotency-Key results.
+ *
+ * Selected with 'app.idempotency.store':
+ * - memory (default): InMemoryIdempotencyStore, per node.
+ * - jdbc: JdbcIdempotencyStore, shared by all nodes through the idempotency_keys table.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Atomically reserves the key as "in progress".
+     * Returns empty if this call made the reservation, otherwise the live entry that already holds the key.
+     */
+    Optional<IdempotentResponse> reserve(String key, String fingerprint, Duration ttl);
+
+    /** Stores the final response for a reserved key. */
+    void complete(String key, IdempotentResponse response, Duration ttl);
+
+    /** Drops a reservation so the request can be retried (used when the action failed). */
+    void release(String key);
+}
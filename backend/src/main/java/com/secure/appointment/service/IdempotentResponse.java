@@ -0,0 +1,41 @@
+package com.secure.appointment.service;
+
+/**
+ * IdempotentResponse: What an IdempotencyStore keeps for one Idempotency-Key.
+ *
+ * While the first request is still running the entry is "in progress" (no status yet).
+ * Once it completes, the HTTP status and JSON body are stored so replays can be
+ * answered without running the action again.
+ */
+public class IdempotentResponse {
+
+    private final String fingerprint;
+    private final Integer status;
+    private final String body;
+
+    public IdempotentResponse(String fingerprint, Integer status, String body) {
+        this.fingerprint = fingerprint;
+        this.status = status;
+        this.body = body;
+    }
+
+    public static IdempotentResponse inProgress(String fingerprint) {
+        return new IdempotentResponse(fingerprint, null, null);
+    }
+
+    public boolean isInProgress() {
+        return status == null;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public String getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,78 @@
+package com.secure.appointment.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * InMemoryIdempotencyStore: Default single-node store.
+ *
+ * An insertion-ordered LinkedHashMap capped at 'app.idempotency.max-entries'.
+ * Every key gets the same TTL, so insertion order is also expiry order: expired
+ * entries are swept from the eldest end on write, and the cap evicts the oldest.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(@Value("${app.idempotency.max-entries:100000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<IdempotentResponse> reserve(String key, String fingerprint, Duration ttl) {
+        long now = System.currentTimeMillis();
+        evictExpired(now);
+        Entry existing = entries.get(key);
+        if (existing != null && existing.expiresAt > now) {
+            return Optional.of(existing.response);
+        }
+        entries.remove(key); // Re-insert at the young end
+        entries.put(key, new Entry(IdempotentResponse.inProgress(fingerprint), now + ttl.toMillis()));
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized void complete(String key, IdempotentResponse response, Duration ttl) {
+        entries.put(key, new Entry(response, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        entries.remove(key);
+    }
+
+    // Stops at the first live entry, so each write only touches what has actually expired
+    private void evictExpired(long now) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().expiresAt > now) {
+                break;
+            }
+            it.remove();
+        }
+    }
+
+    private static class Entry {
+        private final IdempotentResponse response;
+        private final long expiresAt;
+
+        private Entry(IdempotentResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
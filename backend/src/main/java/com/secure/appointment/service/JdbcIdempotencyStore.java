@@ -0,0 +1,85 @@
+package com.secure.appointment.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JdbcIdempotencyStore: Multi-node store backed by the idempotency_keys table.
+ *
+ * The primary key on idempotency_key makes the reservation atomic across nodes:
+ * whoever inserts the row first owns the request. Expired rows are purged on a timer.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(JdbcIdempotencyStore.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<IdempotentResponse> reserve(String key, String fingerprint, Duration ttl) {
+        // A few rounds in case the conflicting row expires or is released between our INSERT and SELECT
+        for (int round = 0; round < 3; round++) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, fingerprint, status, body, expires_at) VALUES (?, ?, NULL, NULL, ?)",
+                        key, fingerprint, now.plus(ttl));
+                return Optional.empty();
+            } catch (DuplicateKeyException e) {
+                List<StoredRow> rows = jdbcTemplate.query(
+                        "SELECT fingerprint, status, body, expires_at FROM idempotency_keys WHERE idempotency_key = ?",
+                        (rs, i) -> new StoredRow(
+                                new IdempotentResponse(rs.getString("fingerprint"), rs.getObject("status", Integer.class), rs.getString("body")),
+                                rs.getObject("expires_at", LocalDateTime.class)),
+                        key);
+                if (!rows.isEmpty() && rows.get(0).expiresAt.isAfter(now)) {
+                    return Optional.of(rows.get(0).response);
+                }
+                jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at <= ?", key, now);
+            }
+        }
+        throw new RuntimeException("Could not reserve Idempotency-Key, please retry");
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response, Duration ttl) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET status = ?, body = ?, expires_at = ? WHERE idempotency_key = ?",
+                response.getStatus(), response.getBody(), LocalDateTime.now().plus(ttl), key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ?", key);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= ?", LocalDateTime.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private static class StoredRow {
+        private final IdempotentResponse response;
+        private final LocalDateTime expiresAt;
+
+        private StoredRow(IdempotentResponse response, LocalDateTime expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.secure.appointment.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * NotificationRetentionService: Keeps the notifications table bounded.
+ *
+ * What it does:
+ * - Deletes read notifications older than 'read-days'.
+ * - Caps unread notifications per user at 'max-unread-per-user', dropping the oldest.
+ * - Deletes in chunks of 'batch-size' rows, one auto-committed statement each, with a pause
+ *   between chunks: no long-held locks and no single huge transaction (or WAL burst),
+ *   and other queries get the table in between.
+ * - Runs on its own thread so the pauses never block the shared scheduler; a run that is
+ *   still going when the next one is due is not started twice.
+ *
+ * Metrics: notifications.purged (counter, tagged by reason) and notifications.purged.per.run.
+ * Running on several nodes at once is safe (deletes are idempotent), just redundant.
+ */
+@Service
+public class NotificationRetentionService {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(NotificationRetentionService.class);
+
+    private static final String DELETE_OLD_READ =
+            "DELETE FROM notifications WHERE id IN (" +
+            "SELECT id FROM notifications WHERE is_read = true AND created_at < ? FETCH FIRST ? ROWS ONLY)";
+
+    private static final String USERS_OVER_CAP =
+            "SELECT recipient_id FROM notifications WHERE is_read = false " +
+            "GROUP BY recipient_id HAVING COUNT(*) > ?";
+
+    // Everything past the newest 'cap' unread rows of one user, a chunk at a time
+    private static final String DELETE_UNREAD_OVER_CAP =
+            "DELETE FROM notifications WHERE id IN (" +
+            "SELECT id FROM notifications WHERE recipient_id = ? AND is_read = false " +
+            "ORDER BY created_at DESC, id DESC OFFSET ? ROWS FETCH NEXT ? ROWS ONLY)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationService notificationService;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary purgedPerRun;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.notifications.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.notifications.retention.read-days:30}")
+    private int readDays;
+
+    @Value("${app.notifications.retention.max-unread-per-user:500}")
+    private int maxUnreadPerUser;
+
+    @Value("${app.notifications.retention.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.notifications.retention.pause-ms:200}")
+    private long pauseMs;
+
+    public NotificationRetentionService(JdbcTemplate jdbcTemplate, NotificationService notificationService,
+                                        MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationService = notificationService;
+        this.meterRegistry = meterRegistry;
+        this.purgedPerRun = DistributionSummary.builder("notifications.purged.per.run")
+                .description("Notifications deleted by one retention run")
+                .register(meterRegistry);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "notification-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow(); // Interrupts the pause; the current chunk has already committed
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.retention.interval-ms:3600000}",
+               initialDelayString = "${app.notifications.retention.initial-delay-ms:60000}")
+    public void schedule() {
+        if (enabled && running.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    purge();
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Function: purge
+     *
+     * 1. TRIGGER: Timer (app.notifications.retention.interval-ms), on the retention thread.
+     *
+     * 2. LOGIC:
+     *    - Step A: Old read rows, found via the (is_read, created_at) index, batch by batch.
+     *    - Step B: Users over the unread cap; for each, the oldest excess rows batch by batch,
+     *      then their cached unread count is dropped.
+     *
+     * 3. OUTCOME: Total rows deleted (also recorded in the metrics).
+     */
+    public long purge() {
+        long started = System.currentTimeMillis();
+        long read = 0;
+        long overCap = 0;
+        try {
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(readDays));
+            read = deleteInChunks("read", DELETE_OLD_READ, cutoff);
+
+            List<Long> users = jdbcTemplate.queryForList(USERS_OVER_CAP, Long.class, maxUnreadPerUser);
+            for (Long userId : users) {
+                overCap += deleteInChunks("unread_cap", DELETE_UNREAD_OVER_CAP, userId, maxUnreadPerUser);
+                notificationService.invalidateUnreadCount(userId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Notification retention interrupted");
+        } catch (RuntimeException e) {
+            log.error("Notification retention failed", e);
+        }
+
+        long total = read + overCap;
+        purgedPerRun.record(total);
+        if (total > 0) {
+            log.info("Notification retention purged {} read and {} over-cap unread rows in {} ms",
+                    read, overCap, System.currentTimeMillis() - started);
+        }
+        return total;
+    }
+
+    // Repeats the chunked DELETE (the chunk size is its last parameter) until a chunk comes back short
+    private long deleteInChunks(String reason, String sql, Object... args) throws InterruptedException {
+        Object[] params = Arrays.copyOf(args, args.length + 1);
+        params[args.length] = batchSize;
+
+        long deleted = 0;
+        while (true) {
+            int rows = jdbcTemplate.update(sql, params);
+            deleted += rows;
+            meterRegistry.counter("notifications.purged", "reason", reason).increment(rows);
+            if (rows < batchSize) {
+                return deleted;
+            }
+            Thread.sleep(pauseMs);
+        }
+    }
+}
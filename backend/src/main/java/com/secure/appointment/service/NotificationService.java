@@ -1,13 +1,27 @@
 package com.secure.appointment.service;
 
+import com.secure.appointment.dto.response.CursorPage;
 import com.secure.appointment.dto.response.NotificationResponse;
 import com.secure.appointment.entity.Notification;
 import com.secure.appointment.entity.User;
 import com.secure.appointment.repository.NotificationRepository;
+import com.secure.appointment.util.BoundedTtlCache;
+import com.secure.appointment.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * NotificationService: Critical Alert System
@@ -17,58 +31,237 @@ import java.time.LocalDateTime;
  * It uses a "Hybrid Approach":
  * 1. PERSISTENCE: Saves to DB (So you don't lose alerts if offline).
  * 2. REAL-TIME: Pushes to WebSockets (So you see alerts instantly if online).
+ *
+ * It also serves the inbox (keyset pages, newest first) and keeps a per-user unread counter
+ * cache for the badge: loaded with one indexed COUNT, then adjusted after each committed
+ * write instead of being recounted. The TTL bounds drift from writes on other nodes.
  */
 @Service
 public class NotificationService {
 
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(NotificationService.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_IDS = 1000;
+    private static final String REPLAY_TRUNCATED_HEADER = "replay-truncated";
+
     private final NotificationRepository notificationRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final BoundedTtlCache<Long, Long> unreadCounts;
+
+    @Value("${app.notifications.replay.max:100}")
+    private int replayMax;
 
-    public NotificationService(NotificationRepository notificationRepository, SimpMessagingTemplate messagingTemplate) {
+    public NotificationService(NotificationRepository notificationRepository, SimpMessagingTemplate messagingTemplate,
+                               @Value("${app.cache.unread.max-entries:100000}") int unreadEntries,
+                               @Value("${app.cache.unread.ttl-seconds:300}") long unreadTtlSeconds) {
         this.notificationRepository = notificationRepository;
         this.messagingTemplate = messagingTemplate;
+        this.unreadCounts = new BoundedTtlCache<>(unreadEntries, unreadTtlSeconds * 1000);
+    }
+
+    /**
+     * Function: saveAll
+     * 
+     * 1. TRIGGER: Called by OutboxDispatcher for the notification events of one batch
+     *    (Provider Cancel, Hold Expiry, Waitlist Promotion), in its own short transaction.
+     * 
+     * 2. LOGIC:
+     *    - Step A: Gives each notification its recipient's next sequence number. The caller must
+     *      hold the recipients' row locks (UserRepository.findAllByIdForUpdate), so numbers are
+     *      never handed out twice and commit in order.
+     *    - Step B: Saves and flushes all rows at once; the pooled id sequence lets Hibernate send
+     *      them as one JDBC batch. Flushing here surfaces a bad row to the caller instead of at commit.
+     * 
+     * 3. OUTCOME: DB Rows Created (pushed by push() once they have committed).
+     */
+    public List<Notification> saveAll(List<Notification> notifications) {
+        for (Notification notification : notifications) {
+            User recipient = notification.getRecipient();
+            long seq = (recipient.getNotificationSeq() == null ? 0L : recipient.getNotificationSeq()) + 1;
+            recipient.setNotificationSeq(seq);
+            notification.setSeq(seq);
+        }
+        List<Notification> saved = notificationRepository.saveAllAndFlush(notifications);
+
+        Map<Long, Long> added = new HashMap<>();
+        saved.forEach(n -> added.merge(n.getRecipient().getId(), 1L, Long::sum));
+        adjustUnreadAfterCommit(added);
+        return saved;
     }
 
     /**
-     * Function: sendNotification
+     * Function: push
      * 
-     * 1. TRIGGER: Called by TimeSlotService (Provider Cancel) or Scheduler (Auto Cancel).
+     * 1. TRIGGER: Called by OutboxDispatcher after the batch that saved these notifications committed,
+     *    so a client never receives an alert whose row was rolled back.
      * 
      * 2. LOGIC:
-     *    - Step A: CREATE & SAVE Entity. This ensures we have a record.
-     *    - Step B: CONVERT to DTO (NotificationResponse) to prevent data leaks.
-     *    - Step C: PUSH via WebSocket Template. 
+     *    - Step A: CONVERT to DTO (NotificationResponse) to prevent data leaks.
+     *    - Step B: PUSH via WebSocket Template. 
      *      'convertAndSendToUser' targets the specific user's queue.
      * 
      * 3. OUTCOME: 
-     *    - DB Row Created.
-     *    - Use's Frontend receives a JSON message in real-time.
+     *    - User's Frontend receives a JSON message in real-time (if connected).
      */
-    public void sendNotification(User recipient, String message) {
-        // 1. Save to Database
-        Notification notification = new Notification(recipient, message);
-        Notification saved = notificationRepository.save(notification);
-
-        // 2. Push to WebSocket (Real-time)
-        // We push to a specific user's queue: /user/{email}/queue/notifications
-        // Note: Spring Security integration allows convertAndSendToUser to direct messages
-        // to a specific authenticated user.
-        
-        NotificationResponse response = new NotificationResponse(
-                saved.getId(),
-                saved.getMessage(),
-                saved.isRead(),
-                saved.getCreatedAt()
-        );
-
-        // convertAndSendToUser automatically prefixes with "/user" and uses the principal name (email)
-        // Destination becomes: /user/{email}/queue/notifications
-        messagingTemplate.convertAndSendToUser(
-                recipient.getEmail(), 
-                "/queue/notifications", 
-                response
-        );
-        
-        System.out.println("Notification sent to " + recipient.getEmail() + ": " + message);
+    public void push(List<Notification> notifications) {
+        for (Notification saved : notifications) {
+            NotificationResponse response = new NotificationResponse(
+                    saved.getId(),
+                    saved.getMessage(),
+                    saved.isRead(),
+                    saved.getCreatedAt(),
+                    saved.getSeq()
+            );
+
+            // convertAndSendToUser automatically prefixes with "/user" and uses the principal name (email)
+            // Destination becomes: /user/{email}/queue/notifications
+            messagingTemplate.convertAndSendToUser(
+                    saved.getRecipient().getEmail(), 
+                    "/queue/notifications", 
+                    response
+            );
+        }
+        log.debug("Pushed {} notifications", notifications.size());
+    }
+
+    /**
+     * Function: replay
+     *
+     * 1. TRIGGER: A client (re)subscribes to /user/queue/notifications with a 'last-seq' header
+     *    (see NotificationReplayInterceptor).
+     *
+     * 2. LOGIC: One range query on (recipient_id, seq) for the unread notifications after the
+     *    client's last sequence, oldest first and at most 'replay.max' of them, pushed to that
+     *    session only. If more are waiting, the last message carries 'replay-truncated: true' and
+     *    the client subscribes again from the last sequence it received to get the next chunk.
+     *
+     * 3. OUTCOME: The client catches up on exactly the gap instead of re-downloading its inbox.
+     */
+    public int replay(Long userId, String email, String sessionId, long afterSeq) {
+        List<NotificationResponse> missed = notificationRepository.findUnreadViewsAfterSeq(
+                userId, afterSeq, PageRequest.of(0, replayMax + 1));
+        boolean truncated = missed.size() > replayMax;
+        if (truncated) {
+            missed = missed.subList(0, replayMax);
+        }
+
+        for (int i = 0; i < missed.size(); i++) {
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            headers.setSessionId(sessionId);
+            if (truncated && i == missed.size() - 1) {
+                headers.setNativeHeader(REPLAY_TRUNCATED_HEADER, "true");
+            }
+            headers.setLeaveMutable(true);
+            messagingTemplate.convertAndSendToUser(email, "/queue/notifications", missed.get(i), headers.getMessageHeaders());
+        }
+        if (!missed.isEmpty()) {
+            log.debug("Replayed {} notifications after seq {} to {} (truncated: {})", missed.size(), afterSeq, email, truncated);
+        }
+        return missed.size();
+    }
+
+    /**
+     * Function: getInbox
+     *
+     * 1. TRIGGER: GET /api/notifications/inbox
+     *
+     * 2. LOGIC: Seeks past the cursor's (createdAt, id) on the (recipient_id, is_read, created_at)
+     *    index and reads one extra row to learn whether another page exists.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationResponse> getInbox(Long userId, String cursor, int size, boolean unreadOnly) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        KeysetCursor before = cursor == null || cursor.isBlank()
+                ? new KeysetCursor(LocalDateTime.now().plusYears(100), Long.MAX_VALUE)
+                : KeysetCursor.decode(cursor);
+
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<NotificationResponse> rows = unreadOnly
+                ? notificationRepository.findUnreadViewsBefore(userId, before.getTime(), before.getId(), page)
+                : notificationRepository.findViewsBefore(userId, before.getTime(), before.getId(), page);
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            NotificationResponse last = rows.get(limit - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(rows, nextCursor);
+    }
+
+    public long getUnreadCount(Long userId) {
+        return unreadCounts.get(userId, () -> notificationRepository.countByRecipientIdAndReadFalse(userId));
+    }
+
+    /**
+     * Marks one notification as read. Returns false if it belongs to someone else.
+     * The ownership lookup only runs when the UPDATE matched nothing.
+     */
+    @Transactional
+    public boolean markAsRead(Long userId, Long notificationId) {
+        if (markRead(userId, List.of(notificationId)) > 0) {
+            return true;
+        }
+        Long recipientId = notificationRepository.findRecipientIdById(notificationId)
+                .orElseThrow(() -> new RuntimeException("Notification not found"));
+        return recipientId.equals(userId); // Already read, or not yours
+    }
+
+    /**
+     * Function: markRead
+     *
+     * 1. TRIGGER: PUT /api/notifications/read (clear the inbox, dismiss a page of alerts).
+     *
+     * 2. LOGIC: One UPDATE ... WHERE recipient_id = ? for all the ids (or everything up to a
+     *    timestamp). Other users' ids and already-read rows simply do not match.
+     *
+     * 3. OUTCOME: Number of notifications that went from unread to read.
+     */
+    @Transactional
+    public int markRead(Long userId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_IDS + " ids per request");
+        }
+        return afterMarkRead(userId, notificationRepository.markReadByIds(userId, ids));
+    }
+
+    @Transactional
+    public int markReadUpTo(Long userId, LocalDateTime upTo) {
+        return afterMarkRead(userId, notificationRepository.markReadUpTo(userId, upTo));
+    }
+
+    private int afterMarkRead(Long userId, int updated) {
+        if (updated > 0) {
+            adjustUnreadAfterCommit(Map.of(userId, (long) -updated));
+        }
+        return updated;
+    }
+
+    /**
+     * Drops the cached count after rows were removed outside this service (retention job).
+     */
+    public void invalidateUnreadCount(Long userId) {
+        unreadCounts.invalidate(userId);
+    }
+
+    // Applied only once the change is committed; a rolled-back write leaves the counters alone
+    private void adjustUnreadAfterCommit(Map<Long, Long> deltas) {
+        Runnable apply = () -> deltas.forEach((userId, delta) ->
+                unreadCounts.update(userId, count -> Math.max(0L, count + delta)));
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
     }
 }
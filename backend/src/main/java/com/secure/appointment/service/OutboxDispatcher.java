@@ -0,0 +1,287 @@
+package com.secure.appointment.service;
+
+import com.secure.appointment.entity.Notification;
+import com.secure.appointment.entity.OutboxEvent;
+import com.secure.appointment.entity.OutboxEventType;
+import com.secure.appointment.entity.OutboxStatus;
+import com.secure.appointment.entity.User;
+import com.secure.appointment.repository.OutboxRepository;
+import com.secure.appointment.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * OutboxDispatcher: Delivers queued emails and notifications.
+ *
+ * What it does:
+ * - Drains outbox_events in batches on a single background thread, woken right after
+ *   each committing transaction and by a slow poll (catches retries and other nodes).
+ * - Each batch is claimed, delivered and recorded in separate short transactions: notification
+ *   rows in one batched insert (pushed over WebSocket once committed) and emails over one SMTP
+ *   session outside any transaction, so slow SMTP never holds DB locks.
+ * - Delivered events are deleted in one statement per batch.
+ * - A failed event is retried with exponential backoff; after max-attempts it is
+ *   parked as DEAD with its last error instead of being retried forever.
+ *
+ * Delivery is at-least-once: a crash between sending and deleting re-sends the event once its
+ * claim lease runs out.
+ */
+@Service
+public class OutboxDispatcher {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxRepository outboxRepository;
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private ExecutorService executor;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    @Value("${app.outbox.claim-lease-ms:300000}")
+    private long claimLeaseMs;
+
+    public OutboxDispatcher(OutboxRepository outboxRepository, UserRepository userRepository,
+                            EmailService emailService, NotificationService notificationService,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.userRepository = userRepository;
+        this.emailService = emailService;
+        this.notificationService = notificationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "outbox-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Requests a drain. Calls made while a drain is already queued are coalesced into it.
+     */
+    public void wakeUp() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:10000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    private void drain() {
+        // Cleared before reading so events committed while we drain trigger another pass
+        drainScheduled.set(false);
+        try {
+            while (dispatchBatch() == batchSize) {
+                // Full batch: there may be more due events
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbox drain failed", e);
+        }
+    }
+
+    /**
+     * One batch in three steps, so no transaction (and no row lock) is open while SMTP talks:
+     * 1. claim: a short transaction picks the due events (SKIP LOCKED) and leases them by pushing
+     *    next_attempt_at past 'claim-lease-ms', so other nodes leave them alone once it commits.
+     * 2. deliver: notification rows are inserted and flushed in their own short transaction;
+     *    emails are sent outside any transaction.
+     * 3. record: a short transaction deletes the delivered events and books the failures.
+     * A crash before step 3 only means the lease runs out and the events are delivered again.
+     */
+    private int dispatchBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> {
+            List<OutboxEvent> due = outboxRepository.findDueForDispatch(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            LocalDateTime leaseUntil = LocalDateTime.now().plusNanos(claimLeaseMs * 1_000_000);
+            due.forEach(event -> event.setNextAttemptAt(leaseUntil));
+            return due;
+        });
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxEvent> notifications = new ArrayList<>();
+        List<OutboxEvent> emails = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            (event.getType() == OutboxEventType.NOTIFICATION ? notifications : emails).add(event);
+        }
+
+        List<OutboxEvent> delivered = new ArrayList<>(events.size());
+        Map<OutboxEvent, Exception> failed = new IdentityHashMap<>();
+        List<Notification> toPush = deliverNotifications(notifications, delivered, failed);
+        deliverEmails(emails, delivered, failed);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                outboxRepository.deleteAllByIdInBatch(delivered.stream().map(OutboxEvent::getId).toList());
+            }
+            failed.forEach(this::recordFailure);
+        });
+        delivered.forEach(event -> record(event, "sent"));
+
+        // Pushed only now that the notification rows have committed
+        if (!toPush.isEmpty()) {
+            notificationService.push(toPush);
+        }
+        return events.size();
+    }
+
+    private List<Notification> deliverNotifications(List<OutboxEvent> events, List<OutboxEvent> delivered,
+                                                    Map<OutboxEvent, Exception> failed) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return insertNotifications(events, delivered, failed);
+        } catch (RuntimeException batchError) {
+            if (events.size() == 1) {
+                failed.put(events.get(0), batchError);
+                return List.of();
+            }
+            // One bad row (e.g. a body longer than the column) fails the whole batch insert.
+            // Retry row by row so only that event backs off and the rest are delivered.
+            List<Notification> saved = new ArrayList<>();
+            for (OutboxEvent event : events) {
+                try {
+                    saved.addAll(insertNotifications(List.of(event), delivered, failed));
+                } catch (RuntimeException e) {
+                    failed.put(event, e);
+                }
+            }
+            return saved;
+        }
+    }
+
+    private List<Notification> insertNotifications(List<OutboxEvent> events, List<OutboxEvent> delivered,
+                                                   Map<OutboxEvent, Exception> failed) {
+        List<OutboxEvent> batch = new ArrayList<>(events.size());
+        List<Notification> saved = transactionTemplate.execute(status -> {
+            List<Long> recipientIds = events.stream().map(OutboxEvent::getRecipientId).distinct().toList();
+            // Locked: NotificationService.saveAll hands out the recipients' next sequence numbers.
+            // Held only for this insert, never across the SMTP send.
+            Map<Long, User> recipients = userRepository.findAllByIdForUpdate(recipientIds).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+
+            List<Notification> rows = new ArrayList<>(events.size());
+            for (OutboxEvent event : events) {
+                User recipient = recipients.get(event.getRecipientId());
+                if (recipient == null) {
+                    failed.put(event, new IllegalStateException("Recipient " + event.getRecipientId() + " no longer exists"));
+                    continue;
+                }
+                batch.add(event);
+                rows.add(new Notification(recipient, event.getBody()));
+            }
+            return rows.isEmpty() ? List.<Notification>of() : notificationService.saveAll(rows);
+        });
+        delivered.addAll(batch);
+        return saved == null ? List.of() : saved;
+    }
+
+    private void deliverEmails(List<OutboxEvent> events, List<OutboxEvent> delivered, Map<OutboxEvent, Exception> failed) {
+        Map<MimeMessage, OutboxEvent> messages = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            try {
+                messages.put(emailService.build(event.getRecipientEmail(), event.getSubject(), event.getBody()), event);
+            } catch (RuntimeException e) {
+                failed.put(event, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        // One SMTP session for the whole batch; a partial failure reports exactly which messages failed
+        Map<Object, Exception> failedMessages = Map.of();
+        try {
+            emailService.deliverAll(new ArrayList<>(messages.keySet()));
+        } catch (MailSendException e) {
+            failedMessages = e.getFailedMessages().isEmpty() ? allFailed(messages.keySet(), e) : e.getFailedMessages();
+        } catch (RuntimeException e) {
+            failedMessages = allFailed(messages.keySet(), e);
+        }
+
+        for (Map.Entry<MimeMessage, OutboxEvent> entry : messages.entrySet()) {
+            Exception error = failedMessages.get(entry.getKey());
+            if (error == null) {
+                delivered.add(entry.getValue());
+            } else {
+                failed.put(entry.getValue(), error);
+            }
+        }
+    }
+
+    private static Map<Object, Exception> allFailed(Collection<MimeMessage> messages, Exception e) {
+        Map<Object, Exception> failed = new IdentityHashMap<>();
+        messages.forEach(message -> failed.put(message, e));
+        return failed;
+    }
+
+    private void recordFailure(OutboxEvent event, Exception e) {
+        event.setAttempts(event.getAttempts() + 1);
+        String error = String.valueOf(e.getMessage());
+        event.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+
+        if (event.getAttempts() >= maxAttempts) {
+            event.setStatus(OutboxStatus.DEAD);
+            record(event, "dead");
+            log.warn("Outbox event {} ({} to {}) dead-lettered after {} attempts: {}",
+                    event.getId(), event.getType(), event.getRecipientEmail(), event.getAttempts(), error);
+        } else {
+            long delay = retryBackoffMs << Math.min(event.getAttempts() - 1, 10);
+            event.setNextAttemptAt(LocalDateTime.now().plusNanos(delay * 1_000_000));
+            record(event, "retry");
+        }
+        outboxRepository.save(event);
+    }
+
+    private void record(OutboxEvent event, String outcome) {
+        meterRegistry.counter("outbox.dispatched", "type", event.getType().name(), "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,91 @@
+package com.secure.appointment.service;
+
+import com.secure.appointment.entity.OutboxEvent;
+import com.secure.appointment.entity.OutboxEventType;
+import com.secure.appointment.entity.User;
+import com.secure.appointment.repository.OutboxRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * OutboxService: Transactional Outbox
+ *
+ * What it does:
+ * Business transactions record their emails and in-app notifications here instead of
+ * sending them. The rows commit (or roll back) together with the booking, so a rolled-back
+ * booking never sends a confirmation and a committed one never loses it.
+ * OutboxDispatcher is woken once per transaction after commit to deliver them.
+ */
+@Service
+public class OutboxService {
+
+    private static final Object WAKE_UP_REGISTERED = new Object();
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxDispatcher outboxDispatcher;
+
+    public OutboxService(OutboxRepository outboxRepository, OutboxDispatcher outboxDispatcher) {
+        this.outboxRepository = outboxRepository;
+        this.outboxDispatcher = outboxDispatcher;
+    }
+
+    public void enqueueEmail(String to, String subject, String body) {
+        enqueue(new OutboxEvent(OutboxEventType.EMAIL, null, to, subject, body));
+    }
+
+    public void enqueueNotification(User recipient, String message) {
+        enqueue(new OutboxEvent(OutboxEventType.NOTIFICATION, recipient.getId(), recipient.getEmail(), null, message));
+    }
+
+    /**
+     * Same message to many recipients, written with one batched insert.
+     */
+    public void enqueueNotifications(Collection<User> recipients, String message) {
+        enqueueAll(recipients.stream()
+                .map(r -> new OutboxEvent(OutboxEventType.NOTIFICATION, r.getId(), r.getEmail(), null, message))
+                .toList());
+    }
+
+    /**
+     * One email per recipient, written with one batched insert.
+     */
+    public void enqueueEmails(Collection<User> recipients, String subject, Function<User, String> body) {
+        enqueueAll(recipients.stream()
+                .map(r -> new OutboxEvent(OutboxEventType.EMAIL, null, r.getEmail(), subject, body.apply(r)))
+                .toList());
+    }
+
+    private void enqueue(OutboxEvent event) {
+        enqueueAll(List.of(event));
+    }
+
+    private void enqueueAll(List<OutboxEvent> events) {
+        outboxRepository.saveAll(events);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outboxDispatcher.wakeUp();
+            return;
+        }
+        // Register the wake-up only once, however many events this transaction queues
+        if (TransactionSynchronizationManager.hasResource(WAKE_UP_REGISTERED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WAKE_UP_REGISTERED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxDispatcher.wakeUp();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WAKE_UP_REGISTERED);
+            }
+        });
+    }
+}
@@ -0,0 +1,345 @@
+package com.secure.appointment.service;
+
+import com.secure.appointment.dto.request.ReportRequest;
+import com.secure.appointment.dto.response.ReportJobResponse;
+import com.secure.appointment.entity.AppointmentStatus;
+import com.secure.appointment.entity.ReportJob;
+import com.secure.appointment.entity.ReportJobStatus;
+import com.secure.appointment.entity.ReportType;
+import com.secure.appointment.entity.TimeSlot;
+import com.secure.appointment.repository.AppointmentRepository;
+import com.secure.appointment.repository.ReportJobRepository;
+import com.secure.appointment.repository.TimeSlotRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReportJobService: Background generation of Excel reports.
+ *
+ * What it does:
+ * - submit() records a QUEUED job and hands it to a bounded worker pool after commit; the request
+ *   returns the job id immediately instead of holding a request thread and a connection while
+ *   the file is written.
+ * - Workers write the report to 'app.reports.dir' (temp file, then atomic rename) and mark the
+ *   job DONE or FAILED. A full queue fails the job right away rather than piling up work.
+ * - Every job carries a fingerprint of the data it reads (slot @Version plus the booked count, or
+ *   the same summed over a provider's date range). An identical request while the fingerprint is
+ *   unchanged returns the existing job and its file instead of generating a new one.
+ * - Finished and failed jobs are deleted with their files after 'retention-hours'.
+ *
+ * Files are on local disk, so jobs are only served by the node that generated them. Each job
+ * records its node ('app.reports.node-id', default: host name); a node only reuses and resumes
+ * its own jobs.
+ */
+@Service
+public class ReportJobService {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ReportJobService.class);
+
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final EnumSet<ReportJobStatus> REUSABLE = EnumSet.of(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING, ReportJobStatus.DONE);
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm");
+
+    private final ReportJobRepository reportJobRepository;
+    private final TimeSlotRepository timeSlotRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final ReportService reportService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor workers;
+    private final Path reportDir;
+    private final String nodeId;
+
+    @Value("${app.reports.retention-hours:24}")
+    private long retentionHours;
+
+    public ReportJobService(ReportJobRepository reportJobRepository, TimeSlotRepository timeSlotRepository,
+                            AppointmentRepository appointmentRepository, ReportService reportService,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.reports.workers:2}") int workerCount,
+                            @Value("${app.reports.queue-capacity:50}") int queueCapacity,
+                            @Value("${app.reports.dir:${java.io.tmpdir}/appointment-reports}") String reportDir,
+                            @Value("${app.reports.node-id:}") String nodeId) {
+        this.reportJobRepository = reportJobRepository;
+        this.timeSlotRepository = timeSlotRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.reportService = reportService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Also used from afterCommit callbacks, where the finished transaction is still bound
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reportDir = Paths.get(reportDir);
+        this.nodeId = nodeId.isBlank() ? hostName() : nodeId;
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "report-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PostConstruct
+    void createReportDir() throws IOException {
+        Files.createDirectories(reportDir);
+    }
+
+    @PreDestroy
+    void stop() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Jobs this node had queued or running when it stopped are queued again. Jobs of other
+     * nodes are left to them: they may still be generating, and the file belongs on their disk.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        List<ReportJob> unfinished = reportJobRepository.findByNodeIdAndStatusIn(nodeId,
+                EnumSet.of(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING));
+        for (ReportJob job : unfinished) {
+            job.setStatus(ReportJobStatus.QUEUED);
+            reportJobRepository.save(job);
+            enqueue(job.getId());
+        }
+        if (!unfinished.isEmpty()) {
+            log.info("Re-queued {} unfinished report jobs", unfinished.size());
+        }
+    }
+
+    /**
+     * Function: submit
+     *
+     * 1. TRIGGER: Provider asks for a slot report or a report over a date range.
+     *
+     * 2. LOGIC: Fingerprints the data the report would read. If a queued, running or finished
+     *    job of this node with the same fingerprint exists (and its file is still there) that job
+     *    is returned.
+     *    Otherwise a new job is recorded and queued once the transaction commits.
+     *
+     * 3. OUTCOME: The job to poll; its download URL is set once it is DONE.
+     */
+    @Transactional
+    public ReportJobResponse submit(Long providerId, ReportRequest request) {
+        ReportJob job = request.getSlotId() != null
+                ? slotJob(providerId, request.getSlotId())
+                : rangeJob(providerId, request.getFromDate(), request.getToDate());
+
+        for (ReportJob existing : reportJobRepository.findByProviderIdAndCacheKeyAndStatusInOrderByCreatedAtDesc(
+                providerId, job.getCacheKey(), REUSABLE)) {
+            if (!nodeId.equals(existing.getNodeId())) {
+                continue; // Its file is (or will be) on another node's disk
+            }
+            if (existing.getStatus() != ReportJobStatus.DONE || Files.exists(Paths.get(existing.getFilePath()))) {
+                return new ReportJobResponse(existing);
+            }
+        }
+
+        job.setNodeId(nodeId);
+        reportJobRepository.save(job);
+        String jobId = job.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(jobId);
+                }
+            });
+        } else {
+            enqueue(jobId);
+        }
+        return new ReportJobResponse(job);
+    }
+
+    @Transactional(readOnly = true)
+    public ReportJobResponse getJob(Long providerId, String jobId) {
+        return new ReportJobResponse(findOwnJob(providerId, jobId));
+    }
+
+    /**
+     * The finished job, ready to be served. Fails if it is still running or its file is gone.
+     */
+    @Transactional(readOnly = true)
+    public ReportJob getDownload(Long providerId, String jobId) {
+        ReportJob job = findOwnJob(providerId, jobId);
+        if (job.getStatus() != ReportJobStatus.DONE) {
+            throw new RuntimeException("Report is not ready (status: " + job.getStatus() + ")");
+        }
+        if (!Files.exists(Paths.get(job.getFilePath()))) {
+            throw new RuntimeException("Report file is no longer available, please request it again");
+        }
+        return job;
+    }
+
+    /**
+     * Deletes jobs older than the retention period together with their files.
+     * Queued and running jobs are left alone.
+     */
+    @Scheduled(fixedDelayString = "${app.reports.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        int purged = 0;
+        for (ReportJob job : reportJobRepository.findByCreatedAtBefore(cutoff)) {
+            if (job.getStatus() == ReportJobStatus.QUEUED || job.getStatus() == ReportJobStatus.RUNNING) {
+                continue;
+            }
+            if (job.getFilePath() != null) {
+                try {
+                    Files.deleteIfExists(Paths.get(job.getFilePath()));
+                } catch (IOException e) {
+                    log.warn("Could not delete report file {}: {}", job.getFilePath(), e.getMessage());
+                    continue; // Keep the row so the next run retries
+                }
+            }
+            reportJobRepository.delete(job);
+            purged++;
+        }
+        if (purged > 0) {
+            log.info("Purged {} expired report jobs", purged);
+        }
+    }
+
+    private ReportJob slotJob(Long providerId, Long slotId) {
+        TimeSlot slot = timeSlotRepository.findById(slotId)
+                .orElseThrow(() -> new RuntimeException("Time slot not found"));
+        if (!slot.getProvider().getId().equals(providerId)) {
+            throw new RuntimeException("You are not authorized to export this slot");
+        }
+
+        long booked = appointmentRepository.countBySlotIdAndStatus(slotId, AppointmentStatus.BOOKED);
+        String cacheKey = "slot:" + slotId + ":v" + slot.getVersion() + ":b" + booked;
+        String fileName = String.format("Appointment_%s_to_%s.xlsx",
+                slot.getStartTime().format(FILE_TIME), slot.getEndTime().format(FILE_TIME));
+
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), providerId, ReportType.SLOT, cacheKey, fileName);
+        job.setSlotId(slotId);
+        return job;
+    }
+
+    private ReportJob rangeJob(Long providerId, LocalDate fromDate, LocalDate toDate) {
+        if (fromDate == null || toDate == null) {
+            throw new IllegalArgumentException("Either slotId or both fromDate and toDate are required");
+        }
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("toDate must not be before fromDate");
+        }
+        if (ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Report range is limited to " + MAX_RANGE_DAYS + " days");
+        }
+
+        LocalDateTime from = fromDate.atStartOfDay();
+        LocalDateTime to = toDate.plusDays(1).atStartOfDay();
+        Object[] slots = timeSlotRepository.versionSummary(providerId, from, to).get(0);
+        long booked = appointmentRepository.countByProviderRange(providerId, from, to, AppointmentStatus.BOOKED);
+        String cacheKey = "range:" + fromDate + ":" + toDate + ":n" + slots[0] + ":v" + slots[1] + ":b" + booked;
+        String fileName = String.format("Appointments_%s_to_%s.xlsx", fromDate, toDate);
+
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), providerId, ReportType.PROVIDER_RANGE, cacheKey, fileName);
+        job.setFromDate(fromDate);
+        job.setToDate(toDate);
+        return job;
+    }
+
+    private ReportJob findOwnJob(Long providerId, String jobId) {
+        ReportJob job = reportJobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Report job not found"));
+        if (!job.getProviderId().equals(providerId)) {
+            throw new RuntimeException("You are not authorized to access this report");
+        }
+        return job;
+    }
+
+    private void enqueue(String jobId) {
+        try {
+            workers.execute(() -> generate(jobId));
+        } catch (RejectedExecutionException e) {
+            markFailed(jobId, "Report queue is full, please try again later");
+        }
+    }
+
+    private void generate(String jobId) {
+        Integer claimed = transactionTemplate.execute(status -> reportJobRepository.markRunning(jobId));
+        if (claimed == null || claimed == 0) {
+            return; // Already picked up or no longer queued
+        }
+        ReportJob job = reportJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        Path target = reportDir.resolve(jobId + ".xlsx");
+        Path partial = reportDir.resolve(jobId + ".xlsx.part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                if (job.getType() == ReportType.SLOT) {
+                    reportService.writeAppointmentReport(job.getSlotId(), out);
+                } else {
+                    reportService.writeProviderReport(job.getProviderId(), job.getFromDate().atStartOfDay(),
+                            job.getToDate().plusDays(1).atStartOfDay(), out);
+                }
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long size = Files.size(target);
+
+            transactionTemplate.executeWithoutResult(status -> reportJobRepository.findById(jobId).ifPresent(done -> {
+                done.setStatus(ReportJobStatus.DONE);
+                done.setFilePath(target.toAbsolutePath().toString());
+                done.setSizeBytes(size);
+                done.setCompletedAt(LocalDateTime.now());
+            }));
+        } catch (Exception e) {
+            log.warn("Report job {} failed: {}", jobId, e.getMessage());
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException ignored) {
+                // Left for the next start; the name never collides with a finished report
+            }
+            markFailed(jobId, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private void markFailed(String jobId, String error) {
+        transactionTemplate.executeWithoutResult(status -> reportJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(ReportJobStatus.FAILED);
+            job.setError(error.length() > 1000 ? error.substring(0, 1000) : error);
+            job.setCompletedAt(LocalDateTime.now());
+        }));
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot determine the host name, set app.reports.node-id", e);
+        }
+    }
+}
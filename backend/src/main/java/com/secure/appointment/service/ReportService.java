@@ -1,47 +1,90 @@
 package com.secure.appointment.service;
 
 import com.secure.appointment.entity.Appointment;
+import com.secure.appointment.entity.AppointmentStatus;
 import com.secure.appointment.repository.AppointmentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.List;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
+/**
+ * ReportService: Excel exports.
+ *
+ * What it does:
+ * - Writes with POI's streaming SXSSF workbook: only the last 'row-window' rows stay in
+ *   memory, older rows are flushed to a compressed temp file and the result is written
+ *   straight to the caller's stream (no in-memory copies of the file).
+ * - Reads the appointments as a stream from one fetch-joined query (customer included),
+ *   detaching each row once written so the persistence context stays small.
+ * - One header style is shared by all header cells (POI limits styles per workbook).
+ */
 @Service
 public class ReportService {
 
+    private static final String[] COLUMNS = {"ID", "Customer Name", "Customer Email", "Date", "Status"};
+
     private final AppointmentRepository appointmentRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.reports.row-window:100}")
+    private int rowWindow;
+
     public ReportService(AppointmentRepository appointmentRepository) {
         this.appointmentRepository = appointmentRepository;
     }
 
-    public ByteArrayInputStream generateAppointmentReport(Long slotId) throws IOException {
-        List<Appointment> appointments = appointmentRepository.findAllBySlotIdAndStatus(slotId, com.secure.appointment.entity.AppointmentStatus.BOOKED);
+    @Transactional(readOnly = true)
+    public void writeAppointmentReport(Long slotId, OutputStream out) throws IOException {
+        try (Stream<Appointment> appointments = appointmentRepository.streamReportRows(slotId, AppointmentStatus.BOOKED)) {
+            write(appointments, out);
+        }
+    }
+
+    /**
+     * All bookings on the provider's slots starting in [from, to), in time order.
+     */
+    @Transactional(readOnly = true)
+    public void writeProviderReport(Long providerId, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        try (Stream<Appointment> appointments = appointmentRepository.streamProviderReportRows(providerId, from, to, AppointmentStatus.BOOKED)) {
+            write(appointments, out);
+        }
+    }
 
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+    private void write(Stream<Appointment> appointments, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
             Sheet sheet = workbook.createSheet("Appointments");
 
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerStyle.setFont(headerFont);
+
             Row headerRow = sheet.createRow(0);
-            String[] columns = {"ID", "Customer Name", "Customer Email", "Date", "Status"};
-            
-            for (int i = 0; i < columns.length; i++) {
+            for (int i = 0; i < COLUMNS.length; i++) {
                 Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                CellStyle style = workbook.createCellStyle();
-                Font font = workbook.createFont();
-                font.setBold(true);
-                style.setFont(font);
-                cell.setCellStyle(style);
+                cell.setCellValue(COLUMNS[i]);
+                cell.setCellStyle(headerStyle);
             }
 
             int rowIdx = 1;
-            for (Appointment appt : appointments) {
+            Iterator<Appointment> it = appointments.iterator();
+            while (it.hasNext()) {
+                Appointment appt = it.next();
                 Row row = sheet.createRow(rowIdx++);
 
                 row.createCell(0).setCellValue(appt.getId());
@@ -49,10 +92,15 @@ public class ReportService {
                 row.createCell(2).setCellValue(appt.getCustomer().getEmail());
                 row.createCell(3).setCellValue(appt.getSlot().getStartTime().toString());
                 row.createCell(4).setCellValue(appt.getStatus().toString());
+
+                entityManager.detach(appt.getCustomer());
+                entityManager.detach(appt);
             }
 
             workbook.write(out);
-            return new ByteArrayInputStream(out.toByteArray());
+        } finally {
+            workbook.dispose(); // Delete the temp file backing the flushed rows
+            workbook.close();
         }
     }
 }
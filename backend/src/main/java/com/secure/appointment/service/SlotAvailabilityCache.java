@@ -0,0 +1,128 @@
+package com.secure.appointment.service;
+
+import com.secure.appointment.dto.response.CursorPage;
+import com.secure.appointment.dto.response.TimeSlotResponse;
+import com.secure.appointment.event.SlotChangedEvent;
+import com.secure.appointment.util.BoundedTtlCache;
+import com.secure.appointment.util.KeysetCursor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * SlotAvailabilityCache: Read cache for the public slot listing.
+ *
+ * What it does:
+ * - Caches single TimeSlotResponse objects by slot id, and whole listing pages.
+ * - Invalidates after commit on SlotChangedEvent:
+ *   - the slot's own entry,
+ *   - cursor pages whose (startTime, id) range covers the slot (other cursor pages are unaffected),
+ *   - every offset page, since one change shifts all later pages and the totals.
+ * - Entries also expire after a short TTL, which covers slots sliding into the past.
+ *
+ * Stats are published with the standard cache meter names (cache.gets, cache.evictions, cache.size).
+ */
+@Service
+public class SlotAvailabilityCache {
+
+    private final BoundedTtlCache<Long, TimeSlotResponse> slots;
+    private final BoundedTtlCache<String, CachedPage> pages;
+
+    public SlotAvailabilityCache(@Value("${app.cache.slots.max-entries:10000}") int slotEntries,
+                                 @Value("${app.cache.slots.ttl-seconds:60}") long slotTtlSeconds,
+                                 @Value("${app.cache.pages.max-entries:1000}") int pageEntries,
+                                 @Value("${app.cache.pages.ttl-seconds:30}") long pageTtlSeconds,
+                                 MeterRegistry meterRegistry) {
+        this.slots = new BoundedTtlCache<>(slotEntries, slotTtlSeconds * 1000);
+        this.pages = new BoundedTtlCache<>(pageEntries, pageTtlSeconds * 1000);
+        registerMetrics(meterRegistry, "slots", slots);
+        registerMetrics(meterRegistry, "slotPages", pages);
+    }
+
+    public TimeSlotResponse getSlot(Long slotId, Supplier<TimeSlotResponse> loader) {
+        return slots.get(slotId, loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Page<TimeSlotResponse> getAvailableSlots(Pageable pageable, Supplier<Page<TimeSlotResponse>> loader) {
+        String key = "page:" + pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+        return (Page<TimeSlotResponse>) pages.get(key, () -> new CachedPage(loader.get())).response;
+    }
+
+    @SuppressWarnings("unchecked")
+    public CursorPage<TimeSlotResponse> getAvailableSlotsAfter(String cursor, int size, Supplier<CursorPage<TimeSlotResponse>> loader) {
+        String key = "cursor:" + cursor + ":" + size;
+        return (CursorPage<TimeSlotResponse>) pages.get(key, () -> {
+            CursorPage<TimeSlotResponse> page = loader.get();
+            KeysetCursor from = cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+            List<TimeSlotResponse> content = page.getContent();
+            TimeSlotResponse last = page.isHasNext() ? content.get(content.size() - 1) : null;
+            return new CachedPage(page, from, last == null ? null : new KeysetCursor(last.getStartTime(), last.getId()));
+        }).response;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotChanged(SlotChangedEvent event) {
+        slots.invalidate(event.getSlotId());
+        pages.invalidateIf((key, page) -> page.covers(event.getStartTime(), event.getSlotId()));
+    }
+
+    private static void registerMetrics(MeterRegistry registry, String name, BoundedTtlCache<?, ?> cache) {
+        FunctionCounter.builder("cache.gets", cache, BoundedTtlCache::getHits)
+                .tags("cache", name, "result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", cache, BoundedTtlCache::getMisses)
+                .tags("cache", name, "result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", cache, BoundedTtlCache::getEvictions)
+                .tags("cache", name).register(registry);
+        Gauge.builder("cache.size", cache, BoundedTtlCache::size)
+                .tags("cache", name).register(registry);
+    }
+
+    /**
+     * A cached listing page and the keyset range it was built from.
+     * Offset pages have no range and are affected by every change.
+     */
+    private static class CachedPage {
+        private final Object response;
+        private final boolean offset;
+        private final KeysetCursor from; // exclusive; null = from the beginning
+        private final KeysetCursor to;   // inclusive; null = to the end (last page)
+
+        private CachedPage(Page<TimeSlotResponse> response) {
+            this.response = response;
+            this.offset = true;
+            this.from = null;
+            this.to = null;
+        }
+
+        private CachedPage(CursorPage<TimeSlotResponse> response, KeysetCursor from, KeysetCursor to) {
+            this.response = response;
+            this.offset = false;
+            this.from = from;
+            this.to = to;
+        }
+
+        private boolean covers(LocalDateTime startTime, Long slotId) {
+            if (offset) {
+                return true;
+            }
+            boolean afterFrom = from == null || compare(startTime, slotId, from) > 0;
+            boolean upToTo = to == null || compare(startTime, slotId, to) <= 0;
+            return afterFrom && upToTo;
+        }
+
+        private static int compare(LocalDateTime startTime, Long slotId, KeysetCursor cursor) {
+            int byTime = startTime.compareTo(cursor.getTime());
+            return byTime != 0 ? byTime : slotId.compareTo(cursor.getId());
+        }
+    }
+}
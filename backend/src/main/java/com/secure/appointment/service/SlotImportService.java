@@ -0,0 +1,260 @@
+package com.secure.appointment.service;
+
+import com.secure.appointment.dto.response.SlotImportReport;
+import com.secure.appointment.entity.Role;
+import com.secure.appointment.entity.TimeSlot;
+import com.secure.appointment.entity.User;
+import com.secure.appointment.event.BookingStatsEvent;
+import com.secure.appointment.event.SlotChangedEvent;
+import com.secure.appointment.repository.TimeSlotRepository;
+import com.secure.appointment.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SlotImportService: Bulk import of a provider's existing slots from CSV.
+ *
+ * What it does:
+ * - Reads the upload line by line ("startTime,endTime[,capacity]", ISO-8601, sorted by startTime)
+ *   and never holds more than one batch of rows.
+ * - Each batch is written in its own transaction:
+ *   - the provider's row is locked (as in TimeSlotService.createSlot), then ONE range query
+ *     loads the provider's slots the batch could clash with,
+ *   - a sweep over both sorted lists rejects overlapping rows,
+ *   - the remaining rows are inserted with saveAll (JDBC batched),
+ *   - then the persistence context is flushed and cleared so memory stays flat.
+ * - Bad rows are reported with their line number and skipped; the other rows are imported.
+ */
+@Service
+public class SlotImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotImportService.class);
+
+    private final TimeSlotRepository timeSlotRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.slots.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.slots.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public SlotImportService(TimeSlotRepository timeSlotRepository,
+                             UserRepository userRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager) {
+        this.timeSlotRepository = timeSlotRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Function: importSlots
+     *
+     * 1. TRIGGER: POST /api/provider/slots/import or POST /api/admin/providers/{id}/slots/import
+     *
+     * 2. LOGIC: Parses and checks each row against the previous accepted row (order, overlap),
+     *    then hands full batches to writeBatch for the check against the database.
+     *
+     * 3. OUTCOME: Number of imported slots plus a per-row error report.
+     */
+    public SlotImportReport importSlots(Long providerId, InputStream csv) {
+        User provider = userRepository.findById(providerId)
+                .orElseThrow(() -> new RuntimeException("Provider not found"));
+        if (provider.getRole() != Role.ROLE_PROVIDER) {
+            throw new IllegalArgumentException("User is not a provider");
+        }
+
+        SlotImportReport report = new SlotImportReport();
+        List<Row> batch = new ArrayList<>(batchSize);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime previousStart = null;
+        LocalDateTime previousEnd = null;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.startsWith("startTime"))) {
+                    continue; // Empty line or header
+                }
+
+                Row row;
+                try {
+                    row = Row.parse(lineNumber, line);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    report.addError(lineNumber, "Invalid row: " + e.getMessage(), maxReportedErrors);
+                    continue;
+                }
+                if (!row.start.isAfter(now)) {
+                    report.addError(lineNumber, "Start time is in the past", maxReportedErrors);
+                    continue;
+                }
+                if (previousStart != null && row.start.isBefore(previousStart)) {
+                    report.addError(lineNumber, "Rows must be sorted by startTime", maxReportedErrors);
+                    continue;
+                }
+                if (previousEnd != null && row.start.isBefore(previousEnd)) {
+                    report.addError(lineNumber, "Time slot overlaps with the previous row", maxReportedErrors);
+                    continue;
+                }
+                previousStart = row.start;
+                previousEnd = row.end;
+
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    writeBatch(providerId, batch, report);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read CSV upload: " + e.getMessage());
+        }
+
+        if (!batch.isEmpty()) {
+            writeBatch(providerId, batch, report);
+        }
+        logger.info("Slot import for provider {}: {} imported, {} failed", providerId, report.getImported(), report.getFailed());
+        return report;
+    }
+
+    private void writeBatch(Long providerId, List<Row> batch, SlotImportReport report) {
+        List<Row> rejected = new ArrayList<>();
+        try {
+            int imported = transactionTemplate.execute(status -> {
+                User provider = userRepository.findByIdForUpdate(providerId)
+                        .orElseThrow(() -> new RuntimeException("Provider not found"));
+                LocalDateTime from = batch.get(0).start;
+                LocalDateTime to = batch.get(batch.size() - 1).end;
+                List<TimeSlot> active = new ArrayList<>();
+                Map<LocalDateTime, TimeSlot> cancelledByStart = new HashMap<>();
+                for (TimeSlot slot : timeSlotRepository.findByProviderInRange(providerId, from, to)) {
+                    if (slot.isCancelled()) {
+                        cancelledByStart.put(slot.getStartTime(), slot);
+                    } else {
+                        active.add(slot);
+                    }
+                }
+
+                List<TimeSlot> written = new ArrayList<>(batch.size());
+                List<TimeSlot> newSlots = new ArrayList<>();
+                int next = 0;
+                for (Row row : batch) {
+                    while (next < active.size() && !active.get(next).getEndTime().isAfter(row.start)) {
+                        next++;
+                    }
+                    if (next < active.size() && active.get(next).getStartTime().isBefore(row.end)) {
+                        row.error = "Time slot overlaps with an existing slot";
+                        rejected.add(row);
+                        continue;
+                    }
+
+                    TimeSlot slot = cancelledByStart.get(row.start);
+                    if (slot != null) {
+                        slot.setEndTime(row.end);
+                        slot.setCancelled(false);
+                        slot.setBooked(false);
+                        slot.setCapacity(row.capacity);
+                        slot.setBookedCount(0);
+                    } else {
+                        slot = TimeSlot.builder()
+                                .provider(provider)
+                                .startTime(row.start)
+                                .endTime(row.end)
+                                .isBooked(false)
+                                .capacity(row.capacity)
+                                .bookedCount(0)
+                                .isCancelled(false)
+                                .build();
+                        newSlots.add(slot);
+                    }
+                    written.add(slot);
+                }
+
+                timeSlotRepository.saveAll(newSlots);
+                entityManager.flush();
+                for (TimeSlot slot : written) {
+                    eventPublisher.publishEvent(SlotChangedEvent.of(slot));
+                    eventPublisher.publishEvent(BookingStatsEvent.seatsOffered(slot, slot.getCapacity()));
+                }
+                return written.size();
+            });
+            report.addImported(imported);
+            for (Row row : rejected) {
+                report.addError(row.line, row.error, maxReportedErrors);
+            }
+        } catch (RuntimeException e) {
+            // e.g. a concurrent insert on another node hit the unique constraint: the whole batch rolled back.
+            // Rows already rejected keep their real reason; only the others are worth retrying.
+            logger.warn("Slot import batch for provider {} failed: {}", providerId, e.getMessage());
+            for (Row row : rejected) {
+                report.addError(row.line, row.error, maxReportedErrors);
+            }
+            for (Row row : batch) {
+                if (row.error == null) {
+                    report.addError(row.line, "Batch could not be saved, please retry this row", maxReportedErrors);
+                }
+            }
+        } finally {
+            entityManager.clear(); // The request-scoped persistence context would otherwise keep every imported slot
+        }
+    }
+
+    private static class Row {
+        private final int line;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final int capacity;
+        private String error;
+
+        private Row(int line, LocalDateTime start, LocalDateTime end, int capacity) {
+            this.line = line;
+            this.start = start;
+            this.end = end;
+            this.capacity = capacity;
+        }
+
+        private static Row parse(int line, String text) {
+            String[] fields = text.split(",", -1);
+            if (fields.length < 2 || fields.length > 3) {
+                throw new IllegalArgumentException("expected startTime,endTime[,capacity]");
+            }
+            LocalDateTime start = LocalDateTime.parse(fields[0].trim());
+            LocalDateTime end = LocalDateTime.parse(fields[1].trim());
+            if (!start.isBefore(end)) {
+                throw new IllegalArgumentException("start time must be before end time");
+            }
+            int capacity = fields.length == 3 && !fields[2].isBlank() ? Integer.parseInt(fields[2].trim()) : 1;
+            if (capacity < 1) {
+                throw new IllegalArgumentException("capacity must be at least 1");
+            }
+            return new Row(line, start, end, capacity);
+        }
+    }
+}
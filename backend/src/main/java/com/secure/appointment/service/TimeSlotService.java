@@ -1,18 +1,25 @@
 package com.secure.appointment.service;
 
+import com.secure.appointment.dto.request.RecurringSlotRequest;
 import com.secure.appointment.dto.request.TimeSlotRequest;
 import com.secure.appointment.dto.response.TimeSlotResponse;
 import com.secure.appointment.entity.TimeSlot;
 import com.secure.appointment.entity.User;
+import com.secure.appointment.event.BookingStatsEvent;
+import com.secure.appointment.event.SlotChangedEvent;
 import com.secure.appointment.repository.TimeSlotRepository;
 import com.secure.appointment.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 public class TimeSlotService {
@@ -20,42 +27,67 @@ public class TimeSlotService {
     private final TimeSlotRepository timeSlotRepository;
     private final UserRepository userRepository;
     private final com.secure.appointment.repository.AppointmentRepository appointmentRepository;
-    private final NotificationService notificationService;
-    private final EmailService emailService;
+    private final OutboxService outboxService;
+    private final WaitlistService waitlistService;
+    private final HoldService holdService;
+    private final com.secure.appointment.repository.WaitlistRepository waitlistRepository;
+    private final SlotAvailabilityCache slotAvailabilityCache;
+    private final org.springframework.context.ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.slots.recurrence.max-slots:2000}")
+    private int maxRecurringSlots;
 
     public TimeSlotService(TimeSlotRepository timeSlotRepository, UserRepository userRepository,
                            com.secure.appointment.repository.AppointmentRepository appointmentRepository,
-                           NotificationService notificationService,
-                           EmailService emailService) {
+                           OutboxService outboxService,
+                           WaitlistService waitlistService,
+                           HoldService holdService,
+                           com.secure.appointment.repository.WaitlistRepository waitlistRepository,
+                           SlotAvailabilityCache slotAvailabilityCache,
+                           org.springframework.context.ApplicationEventPublisher eventPublisher) {
         this.timeSlotRepository = timeSlotRepository;
         this.userRepository = userRepository;
         this.appointmentRepository = appointmentRepository;
-        this.notificationService = notificationService;
-        this.emailService = emailService;
+        this.outboxService = outboxService;
+        this.waitlistService = waitlistService;
+        this.holdService = holdService;
+        this.waitlistRepository = waitlistRepository;
+        this.slotAvailabilityCache = slotAvailabilityCache;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Function: createSlot
+     *
+     * 1. TRIGGER: POST /api/provider/slots
+     *
+     * 2. LOGIC:
+     *    - Locks the provider's row, so concurrent creates for the same provider (on any node)
+     *      run the check below one after the other instead of both passing it.
+     *    - ONE range query returns the active slots the new one would overlap and a cancelled
+     *      slot at the same start time, which is re-activated instead of inserting a duplicate.
+     */
     @Transactional
     public TimeSlotResponse createSlot(Long providerId, TimeSlotRequest request) {
-        if (request.getStartTime().isAfter(request.getEndTime())) {
+        if (!request.getStartTime().isBefore(request.getEndTime())) {
             throw new IllegalArgumentException("Start time must be before end time");
         }
 
-        User provider = userRepository.findById(providerId)
+        User provider = userRepository.findByIdForUpdate(providerId)
                 .orElseThrow(() -> new RuntimeException("Provider not found"));
 
-        if (timeSlotRepository.existsByProviderIdAndStartTimeLessThanAndEndTimeGreaterThanAndIsCancelledFalse(
-                providerId, request.getEndTime(), request.getStartTime())) {
-            throw new IllegalArgumentException("Time slot overlaps with an existing slot");
+        TimeSlot existingSlot = null;
+        for (TimeSlot slot : timeSlotRepository.findByProviderInRange(providerId, request.getStartTime(), request.getEndTime())) {
+            if (!slot.isCancelled() && slot.getEndTime().isAfter(request.getStartTime())) {
+                throw new IllegalArgumentException("Time slot overlaps with an existing slot");
+            }
+            if (slot.isCancelled() && slot.getStartTime().equals(request.getStartTime())) {
+                existingSlot = slot;
+            }
         }
 
-        java.util.Optional<TimeSlot> existingSlotOpt = timeSlotRepository.findByProviderIdAndStartTime(providerId, request.getStartTime());
-
         TimeSlot savedSlot;
-        if (existingSlotOpt.isPresent()) {
-            TimeSlot existingSlot = existingSlotOpt.get();
-            if (!existingSlot.isCancelled()) {
-                throw new IllegalArgumentException("Time slot already exists");
-            }
+        if (existingSlot != null) {
             existingSlot.setEndTime(request.getEndTime());
             existingSlot.setCancelled(false);
             existingSlot.setBooked(false);
@@ -75,27 +107,169 @@ public class TimeSlotService {
             savedSlot = timeSlotRepository.save(slot);
         }
 
+        eventPublisher.publishEvent(SlotChangedEvent.of(savedSlot));
+        eventPublisher.publishEvent(BookingStatsEvent.seatsOffered(savedSlot, savedSlot.getCapacity()));
         return com.secure.appointment.util.DtoMapper.toTimeSlotResponse(savedSlot);
     }
 
+    /**
+     * Function: createRecurringSlots
+     *
+     * 1. TRIGGER: POST /api/provider/slots/recurring
+     *
+     * 2. LOGIC:
+     *    - Expands the rule into concrete intervals (past occurrences are skipped).
+     *    - Locks the provider's row (see createSlot), then loads the provider's slots for the
+     *      whole range in ONE query and sweeps both sorted lists to find any overlap.
+     *    - Cancelled slots at a generated start time are re-activated (same as createSlot);
+     *      the rest are inserted with saveAll, which JDBC-batches thanks to the pooled id sequence.
+     *
+     * 3. OUTCOME: All slots are created, or none (any overlap rejects the whole rule).
+     */
+    @Transactional
+    public List<TimeSlotResponse> createRecurringSlots(Long providerId, RecurringSlotRequest request) {
+        List<LocalDateTime[]> intervals = expand(request);
+        if (intervals.isEmpty()) {
+            throw new IllegalArgumentException("Recurrence does not produce any future slots");
+        }
+
+        User provider = userRepository.findByIdForUpdate(providerId)
+                .orElseThrow(() -> new RuntimeException("Provider not found"));
+        int capacity = request.getCapacity() != null ? request.getCapacity() : 1;
+
+        LocalDateTime from = intervals.get(0)[0];
+        LocalDateTime to = intervals.get(intervals.size() - 1)[1];
+        List<TimeSlot> existing = timeSlotRepository.findByProviderInRange(providerId, from, to);
+
+        List<TimeSlot> active = new ArrayList<>();
+        Map<LocalDateTime, TimeSlot> cancelledByStart = new HashMap<>();
+        for (TimeSlot slot : existing) {
+            if (slot.isCancelled()) {
+                cancelledByStart.put(slot.getStartTime(), slot);
+            } else {
+                active.add(slot);
+            }
+        }
+
+        // Both lists are sorted by start and neither overlaps itself, so one forward pass suffices
+        int next = 0;
+        for (LocalDateTime[] interval : intervals) {
+            while (next < active.size() && !active.get(next).getEndTime().isAfter(interval[0])) {
+                next++;
+            }
+            if (next < active.size() && active.get(next).getStartTime().isBefore(interval[1])) {
+                throw new IllegalArgumentException("Time slot " + interval[0] + " overlaps with an existing slot");
+            }
+        }
+
+        List<TimeSlot> slots = new ArrayList<>(intervals.size());
+        List<TimeSlot> newSlots = new ArrayList<>();
+        for (LocalDateTime[] interval : intervals) {
+            TimeSlot slot = cancelledByStart.get(interval[0]);
+            if (slot != null) {
+                slot.setEndTime(interval[1]);
+                slot.setCancelled(false);
+                slot.setBooked(false);
+                slot.setCapacity(capacity);
+                slot.setBookedCount(0);
+            } else {
+                slot = TimeSlot.builder()
+                        .provider(provider)
+                        .startTime(interval[0])
+                        .endTime(interval[1])
+                        .isBooked(false)
+                        .capacity(capacity)
+                        .bookedCount(0)
+                        .isCancelled(false)
+                        .build();
+                newSlots.add(slot);
+            }
+            slots.add(slot);
+        }
+        timeSlotRepository.saveAll(newSlots);
+
+        List<TimeSlotResponse> responses = new ArrayList<>(slots.size());
+        for (TimeSlot slot : slots) {
+            eventPublisher.publishEvent(SlotChangedEvent.of(slot));
+            eventPublisher.publishEvent(BookingStatsEvent.seatsOffered(slot, slot.getCapacity()));
+            responses.add(com.secure.appointment.util.DtoMapper.toTimeSlotResponse(slot));
+        }
+        return responses;
+    }
+
+    // Expands the rule into [start, end) pairs in ascending order
+    private List<LocalDateTime[]> expand(RecurringSlotRequest request) {
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (!request.getDayStart().isBefore(request.getDayEnd())) {
+            throw new IllegalArgumentException("Day start must be before day end");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int minutes = request.getSlotMinutes();
+        List<LocalDateTime[]> intervals = new ArrayList<>();
+        for (LocalDate day = request.getStartDate(); !day.isAfter(request.getEndDate()); day = day.plusDays(1)) {
+            if (!request.getDaysOfWeek().contains(day.getDayOfWeek())) {
+                continue;
+            }
+            LocalDateTime dayEnd = day.atTime(request.getDayEnd());
+            for (LocalDateTime start = day.atTime(request.getDayStart());
+                 !start.plusMinutes(minutes).isAfter(dayEnd);
+                 start = start.plusMinutes(minutes)) {
+                if (!start.isAfter(now)) {
+                    continue;
+                }
+                if (intervals.size() == maxRecurringSlots) {
+                    throw new IllegalArgumentException("Recurrence expands to more than " + maxRecurringSlots + " slots");
+                }
+                intervals.add(new LocalDateTime[] { start, start.plusMinutes(minutes) });
+            }
+        }
+        return intervals;
+    }
+
     @Transactional(readOnly = true)
     public List<TimeSlotResponse> getProviderSlots(Long providerId) {
-        return timeSlotRepository.findByProviderIdAndIsCancelledFalseOrderByStartTimeAsc(providerId).stream()
-                .map(com.secure.appointment.util.DtoMapper::toTimeSlotResponse)
-                .collect(Collectors.toList());
+        return timeSlotRepository.findViewsByProviderId(providerId);
     }
 
     @Transactional(readOnly = true)
     public TimeSlotResponse getSlotById(Long slotId) {
-        TimeSlot slot = timeSlotRepository.findById(slotId)
-                .orElseThrow(() -> new RuntimeException("Slot not found"));
-        return com.secure.appointment.util.DtoMapper.toTimeSlotResponse(slot);
+        return slotAvailabilityCache.getSlot(slotId, () -> timeSlotRepository.findViewById(slotId)
+                .orElseThrow(() -> new RuntimeException("Slot not found")));
     }
 
     @Transactional(readOnly = true)
     public org.springframework.data.domain.Page<TimeSlotResponse> getAvailableSlots(org.springframework.data.domain.Pageable pageable) {
-        return timeSlotRepository.findByIsBookedFalseAndIsCancelledFalseAndStartTimeAfter(LocalDateTime.now(), pageable)
-                .map(com.secure.appointment.util.DtoMapper::toTimeSlotResponse);
+        return timeSlotRepository.findAvailableViews(LocalDateTime.now(), pageable);
+    }
+
+    /**
+     * Function: getAvailableSlotsAfter
+     *
+     * 1. TRIGGER: GET /api/slots?cursor=...
+     *
+     * 2. LOGIC: Seeks past the cursor's (startTime, id) instead of skipping OFFSET rows, and reads
+     *    one extra row to learn whether another page exists instead of running a COUNT.
+     */
+    @Transactional(readOnly = true)
+    public com.secure.appointment.dto.response.CursorPage<TimeSlotResponse> getAvailableSlotsAfter(String cursor, int size) {
+        LocalDateTime now = LocalDateTime.now();
+        com.secure.appointment.util.KeysetCursor after = cursor == null || cursor.isBlank()
+                ? new com.secure.appointment.util.KeysetCursor(now, 0L)
+                : com.secure.appointment.util.KeysetCursor.decode(cursor);
+
+        List<TimeSlotResponse> rows = timeSlotRepository.findAvailableViewsAfter(now, after.getTime(), after.getId(),
+                org.springframework.data.domain.PageRequest.of(0, size + 1));
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            TimeSlotResponse last = rows.get(size - 1);
+            nextCursor = new com.secure.appointment.util.KeysetCursor(last.getStartTime(), last.getId()).encode();
+        }
+        return new com.secure.appointment.dto.response.CursorPage<>(rows, nextCursor);
     }
 
     @Transactional
@@ -111,28 +285,48 @@ public class TimeSlotService {
             throw new RuntimeException("Slot is already cancelled");
         }
 
-        List<com.secure.appointment.entity.Appointment> appointments = appointmentRepository
-                .findAllBySlotIdAndStatus(slotId, com.secure.appointment.entity.AppointmentStatus.BOOKED);
-
-        for (com.secure.appointment.entity.Appointment appointment : appointments) {
-            appointment.setStatus(com.secure.appointment.entity.AppointmentStatus.CANCELLED);
-            appointment.setCancelledAt(LocalDateTime.now());
-            appointmentRepository.save(appointment);
+        // Bulk fan-out: one UPDATE each for the bookings and the open holds, one batched insert each
+        // for the notifications and emails. The outbox delivers them after commit, so the slot
+        // transaction stays short. Holds are cancelled too, so none can be confirmed on a dead slot.
+        List<com.secure.appointment.entity.Appointment> active = appointmentRepository.findWithCustomerBySlotIdAndStatusIn(
+                slotId, List.of(com.secure.appointment.entity.AppointmentStatus.BOOKED, com.secure.appointment.entity.AppointmentStatus.PENDING));
+        List<User> customers = active.stream()
+                .map(com.secure.appointment.entity.Appointment::getCustomer)
+                .toList();
+        List<Long> holdIds = active.stream()
+                .filter(a -> a.getStatus() == com.secure.appointment.entity.AppointmentStatus.PENDING)
+                .map(com.secure.appointment.entity.Appointment::getId)
+                .toList();
+        LocalDateTime now = LocalDateTime.now();
+        int cancelled = appointmentRepository.cancelAllForSlotWithStatus(slotId, com.secure.appointment.entity.AppointmentStatus.BOOKED, now);
+        int holdsCancelled = appointmentRepository.cancelAllForSlotWithStatus(slotId, com.secure.appointment.entity.AppointmentStatus.PENDING, now);
+        holdService.forgetHoldsAfterCommit(holdIds);
 
+        if (!customers.isEmpty()) {
             String message = "Your appointment for " + slot.getStartTime().toString() + " has been cancelled by the provider.";
-            notificationService.sendNotification(appointment.getCustomer(), message);
-            
+            outboxService.enqueueNotifications(customers, message);
+
             String subject = "Important: Appointment Cancelled by Provider";
-            String body = String.format("Dear %s,\n\nRegrettably, your appointment for %s has been cancelled by the provider.\n\nPlease check the portal to book a new slot.\n\nApologies for the inconvenience.", 
-                    appointment.getCustomer().getEmail(), 
-                    slot.getStartTime());
-            emailService.sendEmail(appointment.getCustomer().getEmail(), subject, body);
+            outboxService.enqueueEmails(customers, subject, customer -> String.format(
+                    "Dear %s,\n\nRegrettably, your appointment for %s has been cancelled by the provider.\n\nPlease check the portal to book a new slot.\n\nApologies for the inconvenience.",
+                    customer.getEmail(),
+                    slot.getStartTime()));
         }
 
         slot.setCancelled(true);
         slot.setBooked(false); 
         slot.setBookedCount(0); 
         timeSlotRepository.save(slot);
+        eventPublisher.publishEvent(SlotChangedEvent.of(slot));
+        eventPublisher.publishEvent(BookingStatsEvent.seatsOffered(slot, -slot.getCapacity()));
+        if (cancelled > 0) {
+            eventPublisher.publishEvent(BookingStatsEvent.cancelled(slot, cancelled, true));
+        }
+        if (holdsCancelled > 0) {
+            eventPublisher.publishEvent(BookingStatsEvent.cancelled(slot, holdsCancelled, false));
+        }
+
+        waitlistRepository.closeAllForSlot(slotId);
     }
 
     @Transactional
@@ -152,6 +346,7 @@ public class TimeSlotService {
             throw new IllegalArgumentException("Cannot decrease capacity below current booked count (" + slot.getBookedCount() + ")");
         }
 
+        int capacityDelta = newCapacity - slot.getCapacity();
         slot.setCapacity(newCapacity);
 
         if (slot.getBookedCount() >= newCapacity) {
@@ -161,6 +356,15 @@ public class TimeSlotService {
         }
 
         TimeSlot savedSlot = timeSlotRepository.save(slot);
+        eventPublisher.publishEvent(SlotChangedEvent.of(savedSlot));
+        eventPublisher.publishEvent(BookingStatsEvent.seatsOffered(savedSlot, capacityDelta));
+
+        // Extra seats go to the waitlist first; promotion clears the persistence context, so re-read
+        if (waitlistService.promoteFreedSeats(slotId) > 0) {
+            savedSlot = timeSlotRepository.findById(slotId)
+                    .orElseThrow(() -> new RuntimeException("Time slot not found"));
+        }
         return com.secure.appointment.util.DtoMapper.toTimeSlotResponse(savedSlot);
     }
 }
+
@@ -0,0 +1,180 @@
+package com.secure.appointment.service;
+
+import com.secure.appointment.dto.response.WaitlistResponse;
+import com.secure.appointment.entity.Appointment;
+import com.secure.appointment.entity.AppointmentStatus;
+import com.secure.appointment.entity.TimeSlot;
+import com.secure.appointment.entity.User;
+import com.secure.appointment.entity.WaitlistEntry;
+import com.secure.appointment.entity.WaitlistStatus;
+import com.secure.appointment.event.BookingStatsEvent;
+import com.secure.appointment.repository.AppointmentRepository;
+import com.secure.appointment.repository.TimeSlotRepository;
+import com.secure.appointment.repository.UserRepository;
+import com.secure.appointment.repository.WaitlistRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * WaitlistService: Per-slot FIFO Waitlist
+ *
+ * What it does:
+ * Customers join a full slot's queue once instead of polling GET /api/slots.
+ * Whenever a seat is freed (appointment cancelled, hold released/expired,
+ * capacity increased) the head of the queue is booked into it in the SAME
+ * transaction that freed the seat, then notified through the outbox.
+ */
+@Service
+public class WaitlistService {
+
+    // A customer with one of these on the slot already has a seat (or is checking out for one)
+    private static final List<AppointmentStatus> SEAT_TAKEN = List.of(AppointmentStatus.BOOKED, AppointmentStatus.PENDING);
+
+    private final WaitlistRepository waitlistRepository;
+    private final TimeSlotRepository timeSlotRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final UserRepository userRepository;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public WaitlistService(WaitlistRepository waitlistRepository, TimeSlotRepository timeSlotRepository,
+                           AppointmentRepository appointmentRepository, UserRepository userRepository,
+                           OutboxService outboxService, ApplicationEventPublisher eventPublisher) {
+        this.waitlistRepository = waitlistRepository;
+        this.timeSlotRepository = timeSlotRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.userRepository = userRepository;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public WaitlistResponse join(Long customerId, Long slotId) {
+        User customer = userRepository.findById(customerId)
+                .orElseThrow(() -> new RuntimeException("Customer not found"));
+        TimeSlot slot = timeSlotRepository.findById(slotId)
+                .orElseThrow(() -> new RuntimeException("Time slot not found"));
+
+        if (slot.isCancelled()) {
+            throw new RuntimeException("Slot has been cancelled");
+        }
+        if (slot.getBookedCount() < slot.getCapacity()) {
+            throw new RuntimeException("Slot still has free seats, book it directly");
+        }
+        if (waitlistRepository.existsBySlotIdAndCustomerIdAndStatus(slotId, customerId, WaitlistStatus.WAITING)) {
+            throw new RuntimeException("You are already on the waitlist for this slot");
+        }
+        if (appointmentRepository.existsBySlotIdAndCustomerIdAndStatusIn(slotId, customerId, SEAT_TAKEN)) {
+            throw new RuntimeException("You already have a seat in this slot");
+        }
+
+        WaitlistEntry entry = waitlistRepository.save(new WaitlistEntry(slot, customer));
+        return toResponse(entry);
+    }
+
+    @Transactional
+    public void leave(Long customerId, Long entryId) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+                .orElseThrow(() -> new RuntimeException("Waitlist entry not found"));
+        if (!entry.getCustomer().getId().equals(customerId)) {
+            throw new RuntimeException("Access Denied: This waitlist entry belongs to another user");
+        }
+        if (waitlistRepository.transitionFromWaiting(entryId, WaitlistStatus.LEFT, null) == 0) {
+            throw new RuntimeException("You are no longer on this waitlist");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistResponse> getMyEntries(Long customerId) {
+        return waitlistRepository.findByCustomerIdAndStatusOrderByJoinedAtDesc(customerId, WaitlistStatus.WAITING).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Function: promoteFreedSeats
+     *
+     * 1. TRIGGER: Any operation that just gave seats back to a slot. Must run inside
+     *    that operation's transaction so freeing and reassigning commit together.
+     *
+     * 2. LOGIC: Repeatedly takes the queue head (guarded so two concurrent releases
+     *    cannot promote the same customer) and claims a seat for it with the guarded
+     *    UPDATE. Stops when the queue is empty or the slot is full again.
+     *    Entries of customers who meanwhile got a seat on the slot are closed and skipped,
+     *    so they are not booked twice and do not block the next customer in line.
+     *
+     * NOTE: The seat claim clears the persistence context, so callers must not touch
+     *       previously loaded entities afterwards.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int promoteFreedSeats(Long slotId) {
+        int promoted = 0;
+        while (true) {
+            Optional<WaitlistEntry> head = waitlistRepository.findFirstBySlotIdAndStatusOrderByIdAsc(slotId, WaitlistStatus.WAITING);
+            if (head.isEmpty()) {
+                return promoted;
+            }
+            WaitlistEntry entry = head.get();
+            User customer = entry.getCustomer();
+            String customerEmail = customer.getEmail();
+
+            if (appointmentRepository.existsBySlotIdAndCustomerIdAndStatusIn(slotId, customer.getId(), SEAT_TAKEN)) {
+                waitlistRepository.transitionFromWaiting(entry.getId(), WaitlistStatus.CLOSED, null);
+                continue;
+            }
+            if (waitlistRepository.transitionFromWaiting(entry.getId(), WaitlistStatus.PROMOTED, LocalDateTime.now()) == 0) {
+                continue; // Someone else promoted or removed this entry; look at the new head
+            }
+            if (timeSlotRepository.claimSeat(slotId) == 0) {
+                // No seat after all: put the customer back at the head of the queue
+                waitlistRepository.save(resetToWaiting(entry.getId()));
+                return promoted;
+            }
+
+            TimeSlot slot = timeSlotRepository.findById(slotId)
+                    .orElseThrow(() -> new RuntimeException("Time slot not found"));
+            customer = userRepository.findById(customer.getId())
+                    .orElseThrow(() -> new RuntimeException("Customer not found"));
+            appointmentRepository.save(Appointment.builder()
+                    .customer(customer)
+                    .slot(slot)
+                    .status(AppointmentStatus.BOOKED)
+                    .bookedAt(LocalDateTime.now())
+                    .build());
+            eventPublisher.publishEvent(BookingStatsEvent.booked(slot, 1));
+
+            String message = "Good news! A seat opened up for " + slot.getStartTime() + " and you have been booked from the waitlist.";
+            outboxService.enqueueNotification(customer, message);
+
+            String subject = "Waitlist Booking Confirmed - BookMySlot";
+            String body = String.format("Dear %s,\n\nA seat opened up and your waitlisted appointment for %s is now confirmed.\n\nThank you for choosing BookMySlot.",
+                    customerEmail,
+                    slot.getStartTime());
+            outboxService.enqueueEmail(customerEmail, subject, body);
+            promoted++;
+        }
+    }
+
+    private WaitlistEntry resetToWaiting(Long entryId) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+                .orElseThrow(() -> new RuntimeException("Waitlist entry not found"));
+        entry.setStatus(WaitlistStatus.WAITING);
+        entry.setPromotedAt(null);
+        return entry;
+    }
+
+    private WaitlistResponse toResponse(WaitlistEntry entry) {
+        long position = entry.getStatus() == WaitlistStatus.WAITING
+                ? waitlistRepository.countBySlotIdAndStatusAndIdLessThanEqual(entry.getSlot().getId(), WaitlistStatus.WAITING, entry.getId())
+                : 0;
+        return new WaitlistResponse(entry.getId(), entry.getSlot().getId(), entry.getSlot().getStartTime(),
+                entry.getStatus().name(), position, entry.getJoinedAt());
+    }
+}
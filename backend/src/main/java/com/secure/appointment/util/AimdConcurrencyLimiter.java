@@ -0,0 +1,63 @@
+package com.secure.appointment.util;
+
+/**
+ * AimdConcurrencyLimiter: Adaptive cap on in-flight requests.
+ *
+ * How it works (additive increase, multiplicative decrease):
+ * - A request may start only while in-flight < limit.
+ * - Each request that finishes under the latency target grows the limit by 1/limit,
+ *   i.e. roughly +1 per full round of requests, but only while the limit is actually in use.
+ * - Each request that is slower than the target, or failed on the server, multiplies the
+ *   limit by 'backoffRatio' so the downstream (DB pool, row locks) can drain.
+ * The limit always stays within [minLimit, maxLimit].
+ */
+public class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+    private double limit;
+    private int inFlight;
+
+    public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Returns a permit taken by tryAcquire and feeds its outcome into the limit.
+     *
+     * @param latencyNanos time from acquire to completion
+     * @param dropped      true if the request failed on the server side (timeout, 5xx)
+     */
+    public synchronized void release(long latencyNanos, boolean dropped) {
+        int inFlightBefore = inFlight;
+        inFlight--;
+        if (dropped || latencyNanos > latencyTargetNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlightBefore * 2 >= (int) limit) {
+            // Do not grow an unused limit, or it would be far too high when a spike arrives
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,197 @@
+package com.secure.appointment.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * BoundedTtlCache: Small LRU cache with a fixed time-to-live.
+ *
+ * - Access-ordered LinkedHashMap capped at 'maxEntries' (least recently used goes first).
+ * - Entries older than the TTL are treated as misses and dropped on read.
+ * - A value is not stored if its key was invalidated or updated while it was loading, or if a
+ *   conditional invalidation issued during the load matches it, so a slow read can never
+ *   re-insert data that a concurrent write has just invalidated. Changes to other keys do not
+ *   affect a load.
+ * Hit, miss and eviction counts are kept for metrics.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final long ttlMillis;
+    private final Map<K, Entry<V>> entries;
+
+    // Load bookkeeping: every change takes the next clock value. Per-key changes and conditional
+    // invalidations are only remembered while a load that started before them is still running.
+    private long clock;
+    private final Map<K, Integer> loadingKeys = new HashMap<>();
+    private final Map<K, Long> changedAt = new HashMap<>();
+    private final TreeMap<Long, Integer> loadStarts = new TreeMap<>();
+    private final Deque<ConditionalInvalidation<K, V>> conditionalInvalidations = new ArrayDeque<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public BoundedTtlCache(int maxEntries, long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value, or loads it (outside the lock) and caches it.
+     */
+    public V get(K key, Supplier<V> loader) {
+        long loadStart;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+                hits++;
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions++;
+            }
+            misses++;
+            loadStart = clock;
+            loadingKeys.merge(key, 1, Integer::sum);
+            loadStarts.merge(loadStart, 1, Integer::sum);
+        }
+
+        V value = null;
+        try {
+            value = loader.get();
+            return value;
+        } finally {
+            synchronized (this) {
+                if (value != null && !changedSince(key, value, loadStart)) {
+                    entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+                }
+                finishLoad(key, loadStart);
+            }
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        recordChange(key);
+        entries.remove(key);
+    }
+
+    /**
+     * Changes a cached value in place (keeping its expiry); absent keys are left absent.
+     * Counts as a change of the key, so a load of it in flight cannot store a value read
+     * before this change.
+     */
+    public synchronized void update(K key, UnaryOperator<V> change) {
+        recordChange(key);
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            entries.put(key, new Entry<>(change.apply(entry.value), entry.expiresAt));
+        }
+    }
+
+    /**
+     * Removes the entries matching the condition. Loads in flight are checked against the same
+     * condition when they finish, and only the ones it matches are discarded.
+     */
+    public synchronized void invalidateIf(BiPredicate<K, V> condition) {
+        long at = ++clock;
+        if (!loadStarts.isEmpty()) {
+            conditionalInvalidations.addLast(new ConditionalInvalidation<>(at, condition));
+        }
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = it.next();
+            if (condition.test(entry.getKey(), entry.getValue().value)) {
+                it.remove();
+            }
+        }
+    }
+
+    private void recordChange(K key) {
+        long at = ++clock;
+        if (loadingKeys.containsKey(key)) {
+            changedAt.put(key, at);
+        }
+    }
+
+    private boolean changedSince(K key, V value, long loadStart) {
+        Long keyChange = changedAt.get(key);
+        if (keyChange != null && keyChange > loadStart) {
+            return true;
+        }
+        for (ConditionalInvalidation<K, V> invalidation : conditionalInvalidations) {
+            if (invalidation.at > loadStart && invalidation.condition.test(key, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void finishLoad(K key, long loadStart) {
+        if (loadingKeys.merge(key, -1, Integer::sum) == 0) {
+            loadingKeys.remove(key);
+            changedAt.remove(key);
+        }
+        if (loadStarts.merge(loadStart, -1, Integer::sum) == 0) {
+            loadStarts.remove(loadStart);
+        }
+        // Conditions older than every running load can no longer affect one
+        long oldestLoad = loadStarts.isEmpty() ? clock : loadStarts.firstKey();
+        while (!conditionalInvalidations.isEmpty() && conditionalInvalidations.peekFirst().at <= oldestLoad) {
+            conditionalInvalidations.removeFirst();
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class ConditionalInvalidation<K, V> {
+        private final long at;
+        private final BiPredicate<K, V> condition;
+
+        private ConditionalInvalidation(long at, BiPredicate<K, V> condition) {
+            this.at = at;
+            this.condition = condition;
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
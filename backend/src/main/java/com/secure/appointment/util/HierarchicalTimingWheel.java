@@ -0,0 +1,140 @@
+package com.secure.appointment.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * HierarchicalTimingWheel: Millisecond-deadline timer with O(1) scheduling.
+ *
+ * How it works:
+ * - Level 0 has 'wheelSize' buckets of 'tickMs' each. Level L buckets are wheelSize^L times wider.
+ * - A task goes into the lowest level whose window still covers its deadline.
+ * - A single ticker thread advances time one tick at a time. The level-0 bucket that just
+ *   elapsed fires; when time crosses a level-L bucket boundary, that bucket's tasks are
+ *   re-inserted ("cascaded") into the finer levels below.
+ *
+ * Tasks fire at most one tick late and run on the supplied executor, never on the ticker thread.
+ */
+public class HierarchicalTimingWheel {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final Executor executor;
+    private final List<List<ArrayDeque<Timeout>>> levels = new ArrayList<>();
+    private final Thread ticker;
+    private long currentTime;
+
+    public HierarchicalTimingWheel(String name, long tickMs, int wheelSize, Executor executor) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.executor = executor;
+        this.currentTime = System.currentTimeMillis() / tickMs * tickMs;
+        this.ticker = new Thread(this::run, name);
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * Schedules the task for the given epoch-millisecond deadline.
+     * Deadlines already in the past fire right away.
+     */
+    public Timeout schedule(long deadlineMs, Runnable task) {
+        Timeout timeout = new Timeout(deadlineMs, task);
+        synchronized (this) {
+            place(timeout);
+        }
+        return timeout;
+    }
+
+    public void stop() {
+        ticker.interrupt();
+    }
+
+    private void place(Timeout timeout) {
+        if (timeout.deadlineMs < currentTime) {
+            fire(timeout);
+            return;
+        }
+        long tick = tickMs;
+        for (int level = 0; ; level++) {
+            long bucket = timeout.deadlineMs / tick;
+            if (bucket - currentTime / tick < wheelSize) {
+                bucketsOf(level).get((int) (bucket % wheelSize)).add(timeout);
+                return;
+            }
+            tick *= wheelSize;
+        }
+    }
+
+    private synchronized void advance(long now) {
+        while (currentTime + tickMs <= now) {
+            // Everything in the level-0 bucket for [currentTime, currentTime + tick) is now due
+            drain(0, currentTime / tickMs).forEach(this::fire);
+            currentTime += tickMs;
+
+            long tick = tickMs;
+            for (int level = 1; level < levels.size(); level++) {
+                tick *= wheelSize;
+                if (currentTime % tick != 0) {
+                    break;
+                }
+                drain(level, currentTime / tick).forEach(this::place);
+            }
+        }
+    }
+
+    private List<Timeout> drain(int level, long bucket) {
+        if (level >= levels.size()) {
+            return List.of();
+        }
+        ArrayDeque<Timeout> slot = levels.get(level).get((int) (bucket % wheelSize));
+        List<Timeout> drained = new ArrayList<>(slot);
+        slot.clear();
+        return drained;
+    }
+
+    private List<ArrayDeque<Timeout>> bucketsOf(int level) {
+        while (levels.size() <= level) {
+            List<ArrayDeque<Timeout>> buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new ArrayDeque<>());
+            }
+            levels.add(buckets);
+        }
+        return levels.get(level);
+    }
+
+    private void fire(Timeout timeout) {
+        if (!timeout.cancelled) {
+            executor.execute(timeout.task);
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(tickMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+            advance(System.currentTimeMillis());
+        }
+    }
+
+    public static class Timeout {
+        private final long deadlineMs;
+        private final Runnable task;
+        private volatile boolean cancelled;
+
+        private Timeout(long deadlineMs, Runnable task) {
+            this.deadlineMs = deadlineMs;
+            this.task = task;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
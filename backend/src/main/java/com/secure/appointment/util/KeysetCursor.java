@@ -0,0 +1,47 @@
+package com.secure.appointment.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * KeysetCursor: Opaque continuation token for seek pagination.
+ *
+ * Wraps the sort key of the last row a client has seen, "timestamp|id", as URL-safe Base64.
+ * The next page is then "rows after (timestamp, id)" which an index on (timestamp, id)
+ * answers with a single seek, no matter how deep the client has paged.
+ */
+public class KeysetCursor {
+
+    private final LocalDateTime time;
+    private final Long id;
+
+    public KeysetCursor(LocalDateTime time, Long id) {
+        this.time = time;
+        this.id = id;
+    }
+
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
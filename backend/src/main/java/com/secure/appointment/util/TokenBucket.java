@@ -0,0 +1,48 @@
+package com.secure.appointment.util;
+
+/**
+ * TokenBucket: Classic token bucket with lazy refill.
+ *
+ * Holds up to 'capacity' tokens (the allowed burst) and refills at 'refillPerSecond'.
+ * Refill is computed from elapsed time on each call, so idle buckets cost nothing.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next token is available
+     */
+    public synchronized long tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / refillPerNano);
+    }
+
+    // A full bucket behaves exactly like a new one, so it can be dropped from any cache
+    public synchronized boolean isFull() {
+        refill();
+        return tokens >= capacity;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,328 @@
+package com.secure.appointment.benchmark;
+
+import com.secure.appointment.dto.response.AppointmentResponse;
+import com.secure.appointment.entity.Role;
+import com.secure.appointment.entity.TimeSlot;
+import com.secure.appointment.entity.User;
+import com.secure.appointment.exception.SlotFullException;
+import com.secure.appointment.repository.TimeSlotRepository;
+import com.secure.appointment.repository.UserRepository;
+import com.secure.appointment.service.AppointmentService;
+import com.secure.appointment.service.BookingEngine;
+import com.secure.appointment.service.BookingStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * BookingContentionBenchmark: Booking path under contention, per strategy.
+ *
+ * Seeds providers, slots and customers, then fires a booking/cancel mix from many threads
+ * straight at the service layer (no HTTP, no JWT) for every BookingStrategy and prints:
+ * throughput, p50/p99/p999 latency, time spent acquiring the slot row lock, and
+ * oversell / booked_count drift found by recounting the appointments table.
+ *
+ * Fails if any strategy oversells a slot, so it can gate changes to the booking path.
+ *
+ * Run: mvn -Pbenchmark test
+ * Tune with -Dbenchmark.providers, .slots, .capacity, .customers, .threads,
+ * .operations, .cancel-ratio and .strategies (comma separated).
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("benchmark")
+class BookingContentionBenchmark {
+
+    private static final int PROVIDERS = Integer.getInteger("benchmark.providers", 4);
+    private static final int SLOTS = Integer.getInteger("benchmark.slots", 20);
+    private static final int CAPACITY = Integer.getInteger("benchmark.capacity", 5);
+    private static final int CUSTOMERS = Integer.getInteger("benchmark.customers", 500);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+    private static final int OPERATIONS = Integer.getInteger("benchmark.operations", 5000);
+    private static final double CANCEL_RATIO = Double.parseDouble(System.getProperty("benchmark.cancel-ratio", "0.3"));
+    private static final String STRATEGIES = System.getProperty("benchmark.strategies",
+            Arrays.stream(BookingStrategy.values()).map(Enum::name).reduce((a, b) -> a + "," + b).orElse(""));
+
+    private static final List<Long> slotIds = new ArrayList<>();
+    private static final List<Long> customerIds = new ArrayList<>();
+
+    @MockBean
+    private JavaMailSender javaMailSender;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private BookingEngine bookingEngine;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void printConfiguration() {
+        System.out.printf("Benchmark: %d providers, %d slots x capacity %d, %d customers, %d threads, %d ops, %.0f%% cancels%n",
+                PROVIDERS, SLOTS, CAPACITY, CUSTOMERS, THREADS, OPERATIONS, CANCEL_RATIO * 100);
+    }
+
+    @BeforeEach
+    void stubMailSender() {
+        // Outbox emails are delivered during the run; keep them cheap and successful
+        when(javaMailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+    }
+
+    @Test
+    void bookingStrategiesUnderContention() throws Exception {
+        seed();
+
+        List<Result> results = new ArrayList<>();
+        for (String name : STRATEGIES.split(",")) {
+            BookingStrategy strategy = BookingStrategy.valueOf(name.trim());
+            useStrategy(strategy);
+
+            reset();
+            run(strategy, Math.max(100, OPERATIONS / 10)); // Warm-up: JIT, connection pool, statement caches
+
+            reset();
+            results.add(run(strategy, OPERATIONS));
+        }
+
+        System.out.println();
+        System.out.printf("%-19s %9s %9s %9s %9s %9s %12s %12s %8s %8s %8s %8s%n",
+                "strategy", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms",
+                "lock avg ms", "lock max ms", "booked", "full", "errors", "oversell");
+        for (Result r : results) {
+            System.out.printf("%-19s %9.0f %9.2f %9.2f %9.2f %9.2f %12.2f %12.2f %8d %8d %8d %8d%n",
+                    r.strategy, r.throughput, r.p50, r.p99, r.p999, r.max, r.lockAvg, r.lockMax,
+                    r.booked, r.fullyBooked, r.errors, r.oversold);
+            r.errorTypes.forEach((type, count) -> System.out.printf("  %s error %s x%d%n", r.strategy, type, count.get()));
+            if (r.drifted > 0) {
+                System.out.printf("  %s: %d slots have booked_count out of sync with their appointments%n", r.strategy, r.drifted);
+            }
+        }
+        System.out.println();
+
+        for (Result r : results) {
+            assertEquals(0, r.oversold, r.strategy + " oversold " + r.oversold + " slots");
+        }
+    }
+
+    private void seed() {
+        if (!slotIds.isEmpty()) {
+            return;
+        }
+        List<User> providers = new ArrayList<>();
+        for (int i = 0; i < PROVIDERS; i++) {
+            providers.add(userRepository.save(user("provider" + i, Role.ROLE_PROVIDER)));
+        }
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customerIds.add(userRepository.save(user("customer" + i, Role.ROLE_CUSTOMER)).getId());
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(30).withNano(0);
+        for (int i = 0; i < SLOTS; i++) {
+            LocalDateTime slotStart = start.plusHours(i);
+            slotIds.add(timeSlotRepository.save(TimeSlot.builder()
+                    .provider(providers.get(i % PROVIDERS))
+                    .startTime(slotStart)
+                    .endTime(slotStart.plusMinutes(30))
+                    .capacity(CAPACITY)
+                    .bookedCount(0)
+                    .isBooked(false)
+                    .isCancelled(false)
+                    .build()).getId());
+        }
+    }
+
+    private User user(String name, Role role) {
+        return User.builder()
+                .name(name)
+                .email(name + "@benchmark.local")
+                .password("not-used")
+                .role(role)
+                .build();
+    }
+
+    private void useStrategy(BookingStrategy strategy) {
+        AppointmentService target = AopTestUtils.getTargetObject(appointmentService);
+        ReflectionTestUtils.setField(target, "bookingStrategy", strategy);
+    }
+
+    private void reset() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        jdbcTemplate.update("DELETE FROM appointments");
+        jdbcTemplate.update("UPDATE time_slots SET booked_count = 0, is_booked = false");
+    }
+
+    private Result run(BookingStrategy strategy, int operations) throws Exception {
+        Timer lockTimer = meterRegistry.timer("booking.lock.wait", "strategy", strategy.name());
+        long lockCountBefore = lockTimer.count();
+        double lockTotalBefore = lockTimer.totalTime(TimeUnit.MILLISECONDS);
+
+        AtomicInteger remaining = new AtomicInteger(operations);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger fullyBooked = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        Map<String, AtomicInteger> errorTypes = new ConcurrentHashMap<>();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<long[]>> workers = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Deque<long[]> ownBookings = new ArrayDeque<>(); // {customerId, appointmentId}
+                long[] latencies = new long[operations];
+                int count = 0;
+                startGate.await();
+                while (remaining.getAndDecrement() > 0) {
+                    boolean cancel = !ownBookings.isEmpty() && random.nextDouble() < CANCEL_RATIO;
+                    long startedAt = System.nanoTime();
+                    try {
+                        if (cancel) {
+                            long[] booking = ownBookings.poll();
+                            appointmentService.cancelAppointment(booking[0], booking[1]);
+                        } else {
+                            Long customerId = customerIds.get(random.nextInt(customerIds.size()));
+                            Long slotId = slotIds.get(random.nextInt(slotIds.size()));
+                            AppointmentResponse response = book(strategy, customerId, slotId);
+                            ownBookings.add(new long[]{customerId, response.getId()});
+                            booked.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        if (cause instanceof SlotFullException) {
+                            fullyBooked.incrementAndGet();
+                        } else {
+                            errors.incrementAndGet();
+                            errorTypes.computeIfAbsent((cancel ? "cancel: " : "book: ") + cause.getClass().getSimpleName(),
+                                    k -> new AtomicInteger()).incrementAndGet();
+                        }
+                    }
+                    latencies[count++] = System.nanoTime() - startedAt;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        startGate.countDown();
+        List<long[]> perThread = new ArrayList<>();
+        for (Future<long[]> worker : workers) {
+            perThread.add(worker.get());
+        }
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+        pool.shutdown();
+
+        long[] all = perThread.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        long lockCount = lockTimer.count() - lockCountBefore;
+        double lockTotal = lockTimer.totalTime(TimeUnit.MILLISECONDS) - lockTotalBefore;
+
+        Result result = new Result();
+        result.strategy = strategy.name();
+        result.throughput = all.length / elapsedSeconds;
+        result.p50 = percentile(all, 0.50);
+        result.p99 = percentile(all, 0.99);
+        result.p999 = percentile(all, 0.999);
+        result.max = all.length == 0 ? 0 : all[all.length - 1] / 1e6;
+        result.lockAvg = lockCount == 0 ? 0 : lockTotal / lockCount;
+        result.lockMax = lockTimer.max(TimeUnit.MILLISECONDS);
+        result.booked = booked.get();
+        result.fullyBooked = fullyBooked.get();
+        result.errors = errors.get();
+        result.errorTypes = errorTypes;
+        checkInventory(result);
+        return result;
+    }
+
+    private AppointmentResponse book(BookingStrategy strategy, Long customerId, Long slotId) {
+        if (strategy == BookingStrategy.PARTITIONED) {
+            return bookingEngine.submit(customerId, slotId).join();
+        }
+        return appointmentService.bookAppointment(customerId, slotId);
+    }
+
+    // Recount every slot from the appointments table, independently of booked_count
+    private void checkInventory(Result result) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT s.capacity AS capacity, s.booked_count AS booked_count, " +
+                "(SELECT COUNT(*) FROM appointments a WHERE a.slot_id = s.id AND a.status = 'BOOKED') AS actual " +
+                "FROM time_slots s");
+        for (Map<String, Object> row : rows) {
+            long capacity = ((Number) row.get("capacity")).longValue();
+            long bookedCount = ((Number) row.get("booked_count")).longValue();
+            long actual = ((Number) row.get("actual")).longValue();
+            if (actual > capacity) {
+                result.oversold++;
+            }
+            if (actual != bookedCount) {
+                result.drifted++;
+            }
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static class Result {
+        String strategy;
+        double throughput;
+        double p50;
+        double p99;
+        double p999;
+        double max;
+        double lockAvg;
+        double lockMax;
+        int booked;
+        int fullyBooked;
+        int errors;
+        Map<String, AtomicInteger> errorTypes;
+        int oversold;
+        int drifted;
+    }
+}
@@ -1,11 +1,27 @@
-import React from 'react';
-import { AppBar, Toolbar, Typography, Button, Box } from '@mui/material';
+import React, { useEffect, useState } from 'react';
+import { AppBar, Toolbar, Typography, Button, Box, Badge, IconButton } from '@mui/material';
+import NotificationsIcon from '@mui/icons-material/Notifications';
 import { Link, useNavigate } from 'react-router-dom';
 import { useAuth } from '../context/AuthContext';
+import api from '../services/api';
 
 const Navbar = () => {
     const { user, logout } = useAuth();
     const navigate = useNavigate();
+    const [unreadCount, setUnreadCount] = useState(0);
+
+    // The badge only needs the count (served from a server-side counter cache), not the alerts
+    useEffect(() => {
+        if (!user) return;
+        const fetchUnreadCount = () => {
+            api.get('/notifications/unread-count')
+                .then((response) => setUnreadCount(response.data.count))
+                .catch(console.error);
+        };
+        fetchUnreadCount();
+        const timer = setInterval(fetchUnreadCount, 30000);
+        return () => clearInterval(timer);
+    }, [user]);
 
     const handleLogout = () => {
         logout();
@@ -43,6 +59,12 @@ const Navbar = () => {
                                 <Button color="inherit" component={Link} to="/admin/dashboard">Admin</Button>
                             )}
 
+                            <IconButton color="inherit" aria-label="unread notifications">
+                                <Badge badgeContent={unreadCount} color="error">
+                                    <NotificationsIcon />
+                                </Badge>
+                            </IconButton>
+
                             <Button color="inherit" onClick={handleLogout}>Logout</Button>
                         </>
                     )}
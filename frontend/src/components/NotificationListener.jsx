@@ -12,30 +12,42 @@ const NotificationListener = () => {
     useEffect(() => {
         if (!user) return;
 
-        // 1. Initial Fetch (for missed notifications while offline)
-        const fetchNotifications = async () => {
-            try {
-                const response = await api.get('/notifications');
-                response.data.forEach(notification => {
-                    displayNotification(notification);
-                });
-            } catch (error) {
-                console.error("Failed to fetch notifications", error);
-            }
+        // Highest notification sequence seen so far. Sent as 'last-seq' on every (re)subscribe so
+        // the server replays only what was missed while offline, instead of us refetching the inbox.
+        const seqKey = `notifications.lastSeq.${user.id}`;
+        let lastSeq = Number(localStorage.getItem(seqKey)) || 0;
+        const seen = new Set(); // Replay and live pushes can overlap around a reconnect
+
+        // Mark displayed notifications as read in one request per burst
+        let pendingRead = [];
+        let readTimer = null;
+        const markRead = (id) => {
+            pendingRead.push(id);
+            if (readTimer) return;
+            readTimer = setTimeout(() => {
+                const ids = pendingRead;
+                pendingRead = [];
+                readTimer = null;
+                api.put('/notifications/read', { ids }).catch(console.error);
+            }, 250);
         };
 
         const displayNotification = (notification) => {
+            if (seen.has(notification.id)) return;
+            seen.add(notification.id);
+            if (notification.seq && notification.seq > lastSeq) {
+                lastSeq = notification.seq;
+                localStorage.setItem(seqKey, String(lastSeq));
+            }
+
             toast.info(notification.message, {
                 autoClose: false,
                 closeOnClick: false
             });
-            // Mark as read
-            api.put(`/notifications/${notification.id}/read`).catch(console.error);
+            markRead(notification.id);
         };
 
-        fetchNotifications();
-
-        // 2. WebSocket Connection
+        // WebSocket Connection
         // Pass token in query param for authentication
         const token = localStorage.getItem('token');
 
@@ -44,26 +56,28 @@ const NotificationListener = () => {
 
         stompClient.debug = () => { }; // Disable debug logs
 
-        stompClient.connect({
-            // Pass JWT token if needed, usually passed in headers for handshake or connect
-            // Spring Security 6 WebSocket might require token in query param or headers
-            // For now, we are using implicit session or simplified flow.
-            // If secure, we might need 'Authorization': `Bearer ${token}`
-        }, (frame) => {
-            // Subscribe to user-specific queue
-            // Spring converts /user/queue/notifications -> /user/{username}/queue/notifications
-            // We need to match what we send in backend: convertAndSendToUser(email, "/queue/notifications", ...)
-            stompClient.subscribe('/user/queue/notifications', (message) => {
-                const notification = JSON.parse(message.body);
-                displayNotification(notification);
-            });
-        }, (error) => {
+        // Subscribe to user-specific queue
+        // Spring converts /user/queue/notifications -> /user/{username}/queue/notifications
+        const subscribe = () => {
+            const subscription = stompClient.subscribe('/user/queue/notifications', (message) => {
+                displayNotification(JSON.parse(message.body));
+                // The replay is sent oldest first in chunks; subscribe again from where this one stopped
+                if (message.headers['replay-truncated'] === 'true') {
+                    subscription.unsubscribe();
+                    subscribe();
+                }
+            }, { 'last-seq': String(lastSeq) });
+        };
+
+        // Runs again after every automatic reconnect, with the latest sequence we have seen
+        stompClient.connect({}, subscribe, (error) => {
             console.error("WebSocket Error: ", error);
         });
 
         stompClientRef.current = stompClient;
 
         return () => {
+            if (readTimer) clearTimeout(readTimer);
             if (stompClientRef.current) {
                 stompClientRef.current.deactivate(); // disconnect() is deprecated in v5
             }
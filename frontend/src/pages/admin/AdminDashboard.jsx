@@ -1,21 +1,26 @@
 import React, { useEffect, useState } from 'react';
-import { Container, Typography, Paper, Table, TableBody, TableCell, TableContainer, TableHead, TableRow, Tabs, Tab, Box } from '@mui/material';
+import { Container, Typography, Paper, Table, TableBody, TableCell, TableContainer, TableHead, TableRow, Tabs, Tab, Box, Button, MenuItem, TextField } from '@mui/material';
 import api from '../../services/api';
 
 const AdminDashboard = () => {
     const [tabValue, setTabValue] = useState(0);
     const [appointments, setAppointments] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [status, setStatus] = useState('');
 
     useEffect(() => {
         if (tabValue === 0) {
             fetchAppointments();
         }
-    }, [tabValue]);
+    }, [tabValue, status]);
 
-    const fetchAppointments = async () => {
+    // The listing is paginated: an empty cursor loads the first page, nextCursor loads the one after
+    const fetchAppointments = async (cursor = '') => {
         try {
-            const response = await api.get('/admin/appointments');
-            setAppointments(response.data);
+            const response = await api.get('/admin/appointments', { params: { cursor, status: status || undefined } });
+            const data = response.data;
+            setAppointments(prev => (cursor ? [...prev, ...data.content] : data.content));
+            setNextCursor(data.nextCursor || null);
         } catch (error) {
             console.error(error);
         }
@@ -32,6 +37,14 @@ const AdminDashboard = () => {
             </Box>
 
             {tabValue === 0 && (
+                <>
+                <TextField select size="small" label="Status" value={status} onChange={(e) => setStatus(e.target.value)} sx={{ mb: 2, minWidth: 160 }}>
+                    <MenuItem value="">All</MenuItem>
+                    <MenuItem value="BOOKED">Booked</MenuItem>
+                    <MenuItem value="PENDING">Pending</MenuItem>
+                    <MenuItem value="COMPLETED">Completed</MenuItem>
+                    <MenuItem value="CANCELLED">Cancelled</MenuItem>
+                </TextField>
                 <TableContainer component={Paper}>
                     <Table>
                         <TableHead>
@@ -56,6 +69,12 @@ const AdminDashboard = () => {
                         </TableBody>
                     </Table>
                 </TableContainer>
+                {nextCursor && (
+                    <Button variant="outlined" sx={{ mt: 2 }} onClick={() => fetchAppointments(nextCursor)}>
+                        Load More
+                    </Button>
+                )}
+                </>
             )}
 
             {tabValue === 1 && (
@@ -7,18 +7,21 @@ import { useAuth } from '../../context/AuthContext';
 
 const SlotList = () => {
     const [slots, setSlots] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const { user } = useAuth();
 
     useEffect(() => {
         fetchSlots();
     }, []);
 
-    const fetchSlots = async () => {
+    // Cursor mode: an empty cursor loads the first page, nextCursor loads the one after
+    const fetchSlots = async (cursor = '') => {
         try {
-            const response = await api.get('/slots');
+            const response = await api.get('/slots', { params: { cursor } });
             const data = response.data;
             if (data.content && Array.isArray(data.content)) {
-                setSlots(data.content);
+                setSlots(prev => (cursor ? [...prev, ...data.content] : data.content));
+                setNextCursor(data.nextCursor || null);
             } else if (Array.isArray(data)) {
                 setSlots(data);
             } else {
@@ -80,6 +83,11 @@ const SlotList = () => {
                 ))}
                 {(!slots || slots.length === 0) && <Typography>No slots available.</Typography>}
             </Grid>
+            {nextCursor && (
+                <Button variant="outlined" sx={{ mt: 3 }} onClick={() => fetchSlots(nextCursor)}>
+                    Load More
+                </Button>
+            )}
         </Container >
     );
 };
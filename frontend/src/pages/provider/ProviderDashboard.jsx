@@ -58,22 +58,23 @@ const ProviderDashboard = () => {
 
     const handleExport = async (slotId) => {
         try {
-            const response = await api.get(`/provider/slots/${slotId}/report`, { responseType: 'blob' });
-
-            let filename = 'Appointment_Report.xlsx';
-            const disposition = response.headers['content-disposition'];
-            if (disposition && disposition.indexOf('attachment') !== -1) {
-                const filenameRegex = /filename[^;=\n]*=((['"]).*?\2|[^;\n]*)/;
-                const matches = filenameRegex.exec(disposition);
-                if (matches != null && matches[1]) {
-                    filename = matches[1].replace(/['"]/g, '');
-                }
+            // Reports are generated in the background: queue the job, poll it, then download the file
+            let { data: job } = await api.post('/provider/reports', { slotId });
+            for (let attempt = 0; job.status !== 'DONE' && job.status !== 'FAILED' && attempt < 120; attempt++) {
+                await new Promise((resolve) => setTimeout(resolve, 1000));
+                ({ data: job } = await api.get(`/provider/reports/${job.id}`));
+            }
+            if (job.status !== 'DONE') {
+                toast.error('Export failed' + (job.error ? ': ' + job.error : ''));
+                return;
             }
 
+            const response = await api.get(`/provider/reports/${job.id}/download`, { responseType: 'blob' });
+
             const url = window.URL.createObjectURL(new Blob([response.data]));
             const link = document.createElement('a');
             link.href = url;
-            link.setAttribute('download', filename);
+            link.setAttribute('download', job.fileName || 'Appointment_Report.xlsx');
             document.body.appendChild(link);
             link.click();
             link.remove();